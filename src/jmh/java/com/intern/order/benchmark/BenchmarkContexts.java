@@ -0,0 +1,51 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.OrderManagementApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application against the in-memory H2 "test" profile, without Redis and, unless
+ * {@link #startWeb} is used, without a web server.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return run(WebApplicationType.NONE, extraProperties);
+    }
+
+    /**
+     * Same as {@link #start} but with Tomcat on a random port.
+     */
+    static ConfigurableApplicationContext startWeb(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(extraProperties));
+        properties.add("server.port=0");
+        return run(WebApplicationType.SERVLET, properties.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String... extraProperties) {
+        // Passed as command-line arguments so they take precedence over application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=test",
+                "--spring.sql.init.mode=never",
+                "--spring.cache.type=simple",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=OFF"
+        ));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+
+        return new SpringApplicationBuilder(OrderManagementApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+}
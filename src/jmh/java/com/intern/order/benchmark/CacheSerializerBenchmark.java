@@ -0,0 +1,117 @@
+package com.intern.order.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.intern.order.cache.DtoBinaryRedisSerializer;
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.ProductResponse;
+import com.intern.order.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode throughput of the cache value serializers. The JSON side is configured like
+ * RedisConfig's redisObjectMapper. The {@code payloadBytes} counter divided by {@code encodes}
+ * gives the stored size of one value.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    @Param({"product", "order", "productList"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(objectMapper);
+        serializer = "json".equals(format) ? json : new DtoBinaryRedisSerializer(json);
+
+        value = switch (payload) {
+            case "product" -> product(1L);
+            case "order" -> order();
+            default -> {
+                List<ProductResponse> products = new ArrayList<>();
+                for (long id = 1; id <= 20; id++) {
+                    products.add(product(id));
+                }
+                yield products;
+            }
+        };
+        encoded = serializer.serialize(value);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long payloadBytes;
+        public long encodes;
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize size) {
+        byte[] bytes = serializer.serialize(value);
+        size.payloadBytes += bytes.length;
+        size.encodes++;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static ProductResponse product(Long id) {
+        return ProductResponse.builder()
+                .id(id)
+                .name("Benchmark product " + id)
+                .price(new BigDecimal("1299.99"))
+                .stock(250)
+                .category("Electronics")
+                .isActive(true)
+                .createdAt(LocalDateTime.of(2024, 1, 15, 9, 30))
+                .build();
+    }
+
+    private static OrderResponse order() {
+        List<OrderItemResponse> items = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            items.add(new OrderItemResponse(id, "Benchmark product " + id, 2, new BigDecimal("19.99"), new BigDecimal("39.98")));
+        }
+        return OrderResponse.builder()
+                .id(42L)
+                .customerName("Benchmark Customer")
+                .customerEmail("benchmark@example.com")
+                .orderDate(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("199.90"))
+                .orderItems(items)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderItemRequest;
+import com.intern.order.entity.Product;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link OrderService#createOrder} against cart size and stock mode.
+ * SampleTime mode reports the p99; the {@code statements} counter divided by {@code orders}
+ * gives the number of JDBC round trips per order. Reservation mode uses the in-memory counter store.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CreateOrderBenchmark {
+
+    @Param({"1", "10", "40"})
+    public int cartSize;
+
+    @Param({"direct", "reservation"})
+    public String stockMode;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Statistics statistics;
+    private CreateOrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("app.stock.mode=" + stockMode, "app.stock.backend=local");
+        orderService = context.getBean(OrderService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < cartSize; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .name("Benchmark product " + i)
+                    .price(new BigDecimal("9.99"))
+                    .stock(Integer.MAX_VALUE)
+                    .category("Benchmark")
+                    .isActive(true)
+                    .build());
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(product.getId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+
+        request = new CreateOrderRequest();
+        request.setCustomerName("Benchmark Customer");
+        request.setCustomerEmail("benchmark@example.com");
+        request.setOrderItems(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        public long statements;
+        public long orders;
+    }
+
+    @Benchmark
+    public Object createOrder(RoundTrips roundTrips) {
+        long before = statistics.getPrepareStatementCount();
+        Object response = orderService.createOrder(request);
+        roundTrips.statements += statistics.getPrepareStatementCount() - before;
+        roundTrips.orders++;
+        return response;
+    }
+}
@@ -0,0 +1,74 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.config.JwtProperties;
+import com.intern.order.entity.User;
+import com.intern.order.enums.Role;
+import com.intern.order.security.JwtUtil;
+import com.intern.order.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT handling in {@link com.intern.order.security.JwtAuthenticationFilter}.
+ * {@code legacyFilterPath} is the previous behaviour (three parses, key rebuilt each time) and is the
+ * baseline for {@code filterPath}, with and without the verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "aVeryStrongAndLongSecretKeyForJWTThatShouldBeInAnEnvironmentVariable";
+
+    @Param({"0", "10000"})
+    public long verifiedTokenCacheSize;
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpirationMs(86_400_000);
+        properties.setVerifiedTokenCacheSize(verifiedTokenCacheSize);
+        jwtUtil = new JwtUtil(properties);
+
+        user = User.builder().username("admin").password("ignored").role(Role.ROLE_ADMIN).build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean filterPath() {
+        VerifiedToken verified = jwtUtil.verify(token);
+        return jwtUtil.isTokenValid(verified, user);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyClaims().getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims().getSubject().equals(user.getUsername())
+                && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,155 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderItemRequest;
+import com.intern.order.entity.Product;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkout throughput of {@link OrderService#createOrder} with application logging off, written
+ * synchronously by the request thread ({@code sync}) and through the AsyncAppender in logback-spring.xml
+ * ({@code async}). Both logging variants use the ECS JSON encoder that prod uses. The console is redirected
+ * to a temporary file so the numbers include real I/O without flooding the JMH output; the bytes written
+ * are reported as the {@code logBytes} counter next to {@code orders}. Each thread orders its own products,
+ * so row locks do not hide the logging cost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final int CART_SIZE = 5;
+
+    @Param({"off", "sync", "async"})
+    public String logging;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private PrintStream originalOut;
+    private Path logFile;
+    private final AtomicLong logBytes = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        System.setOut(new PrintStream(new CountingOutputStream(Files.newOutputStream(logFile), logBytes), false));
+
+        List<String> properties = new ArrayList<>();
+        properties.add("logging.level.com.intern.order=" + (logging.equals("off") ? "OFF" : "INFO"));
+        if (!logging.equals("off")) {
+            // prod'dagidek JSON: test profilining oddiy matnli encoder'i arzonroq va natijani buzadi
+            properties.add("logging.structured.format.console=ecs");
+            properties.add("spring.profiles.include=structured-logging" + (logging.equals("sync") ? ",sync-logging" : ""));
+        }
+        context = BenchmarkContexts.start(properties.toArray(String[]::new));
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+        Files.deleteIfExists(logFile);
+    }
+
+    /**
+     * Log bytes written during the iteration (by every thread, recorded by the first one only) and orders
+     * placed, so logBytes / orders is the log volume per checkout.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LogVolume {
+        public long logBytes;
+        public long orders;
+
+        private boolean reporting;
+        private long bytesAtStart;
+
+        @Setup(Level.Iteration)
+        public void setUp(LoggingBenchmark benchmark, ThreadParams threadParams) {
+            reporting = threadParams.getThreadIndex() == 0;
+            bytesAtStart = benchmark.logBytes.get();
+            logBytes = 0;
+            orders = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cart {
+        CreateOrderRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp(LoggingBenchmark benchmark) {
+            ProductRepository productRepository = benchmark.context.getBean(ProductRepository.class);
+            List<OrderItemRequest> items = new ArrayList<>();
+            for (int i = 0; i < CART_SIZE; i++) {
+                Product product = productRepository.save(Product.builder()
+                        .name("Logging benchmark product " + i)
+                        .price(new BigDecimal("9.99"))
+                        .stock(Integer.MAX_VALUE)
+                        .category("Benchmark")
+                        .isActive(true)
+                        .build());
+                OrderItemRequest item = new OrderItemRequest();
+                item.setProductId(product.getId());
+                item.setQuantity(1);
+                items.add(item);
+            }
+            request = new CreateOrderRequest();
+            request.setCustomerName("Benchmark Customer");
+            request.setCustomerEmail("benchmark@example.com");
+            request.setOrderItems(items);
+        }
+    }
+
+    @Benchmark
+    public Object createOrder(Cart cart, LogVolume volume) {
+        Object response = orderService.createOrder(cart.request);
+        volume.orders++;
+        if (volume.reporting) {
+            volume.logBytes = logBytes.get() - volume.bytesAtStart;
+        }
+        return response;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderItem;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.Advised;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO cost of the private {@code OrderService.mapToOrderResponse}, called through a method
+ * handle on a fully loaded, detached order so no database work is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "40"})
+    public int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private Object orderService;
+    private MethodHandle mapToOrderResponse;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start();
+        orderService = ((Advised) context.getBean(OrderService.class)).getTargetSource().getTarget();
+        mapToOrderResponse = MethodHandles.privateLookupIn(OrderService.class, MethodHandles.lookup())
+                .findVirtual(OrderService.class, "mapToOrderResponse", MethodType.methodType(OrderResponse.class, Order.class));
+
+        order = Order.builder()
+                .id(1L)
+                .customerName("Benchmark Customer")
+                .customerEmail("benchmark@example.com")
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("9.99").multiply(BigDecimal.valueOf(itemCount)))
+                .build();
+        for (long i = 0; i < itemCount; i++) {
+            Product product = Product.builder().id(i).name("Benchmark product " + i).price(new BigDecimal("9.99")).build();
+            order.getOrderItems().add(OrderItem.builder()
+                    .id(i)
+                    .order(order)
+                    .product(product)
+                    .quantity(1)
+                    .unitPrice(product.getPrice())
+                    .totalPrice(product.getPrice())
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse mapToOrderResponse() throws Throwable {
+        return (OrderResponse) mapToOrderResponse.invoke(orderService, order);
+    }
+}
@@ -0,0 +1,47 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.service.search.ProductInvertedIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductInvertedIndex#search} alone, without Spring or a database, on catalogs large enough that
+ * broad queries match a big share of the products. A blank query matches every product.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductInvertedIndexBenchmark {
+
+    private static final String[] WORDS = {"apple", "samsung", "laptop", "phone", "keyboard", "mouse", "monitor",
+            "wireless", "gaming", "pro", "ultra", "mini", "cable", "charger", "headphones", "speaker"};
+    private static final String[] CATEGORIES = {"Electronics", "Mobile", "Accessories", "Audio", "Computers"};
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    // "" - butun katalog, "pro" - har 8-mahsulot, "wireles gaming" - tor, xatoli so'rov
+    @Param({"", "pro", "wireles gaming"})
+    public String query;
+
+    @Param({"0", "50"})
+    public int page;
+
+    private ProductInvertedIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new ProductInvertedIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            index.put((long) i + 1,
+                    WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i,
+                    CATEGORIES[i % CATEGORIES.length]);
+        }
+    }
+
+    @Benchmark
+    public Object search() {
+        return index.search(query, null, page * 20, 20);
+    }
+}
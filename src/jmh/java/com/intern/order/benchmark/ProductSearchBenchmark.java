@@ -0,0 +1,69 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.entity.Product;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.ProductService;
+import com.intern.order.service.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.Advised;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService#searchProducts} against H2 with both search engines. The service is called on
+ * its proxy target, so the "productSearch" cache does not hide the query cost.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {"apple", "samsung", "laptop", "phone", "keyboard", "mouse", "monitor",
+            "wireless", "gaming", "pro", "ultra", "mini", "cable", "charger", "headphones", "speaker"};
+    private static final String[] CATEGORIES = {"Electronics", "Mobile", "Accessories", "Audio", "Computers"};
+
+    @Param({"database", "in-memory"})
+    public String engine;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    @Param({"keyboard", "wireles gaming"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start("app.search.engine=" + engine);
+        productService = (ProductService) ((Advised) context.getBean(ProductService.class)).getTargetSource().getTarget();
+
+        List<Product> products = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            products.add(Product.builder()
+                    .name(WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i)
+                    .price(new BigDecimal("9.99"))
+                    .stock(100)
+                    .category(CATEGORIES[i % CATEGORIES.length])
+                    .isActive(true)
+                    .build());
+        }
+        context.getBean(ProductRepository.class).saveAll(products);
+        context.getBean(ProductSearchIndex.class).buildOnStartup(); // Mahsulotlar kontekst ishga tushgandan keyin qo'shildi
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object searchProducts() {
+        return productService.searchProducts(query, null, 0, 20);
+    }
+}
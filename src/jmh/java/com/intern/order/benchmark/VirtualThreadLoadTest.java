@@ -0,0 +1,142 @@
+package com.intern.order.benchmark;
+
+import com.intern.order.entity.Product;
+import com.intern.order.repository.ProductRepository;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load test: N clients each send one request, wait for the answer and repeat, first against
+ * the platform-thread Tomcat pool and then with the virtual-threads profile. Prints throughput and
+ * p50/p99 latency per mode. Not a JMH benchmark; run it with {@code ./gradlew loadTest}.
+ * <p>
+ * System properties: {@code clients} (default 5000), {@code durationSeconds} (30), {@code warmupSeconds} (10),
+ * {@code path} (a DB-backed page of products).
+ * <p>
+ * H2 answers in microseconds, so the gap here is smaller than against Postgres/Redis, where requests spend
+ * most of their time blocked.
+ */
+public final class VirtualThreadLoadTest {
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 5000);
+        Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("warmupSeconds", 10));
+        String path = System.getProperty("path", "/api/products?page=0&size=20");
+
+        System.out.printf("%-10s %8s %12s %10s %10s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms", "errors");
+        for (String mode : List.of("platform", "virtual")) {
+            String[] properties = mode.equals("virtual")
+                    ? new String[]{"spring.profiles.include=virtual-threads"}
+                    : new String[]{"server.tomcat.max-connections=10000", "server.tomcat.accept-count=1000"};
+            try (ConfigurableApplicationContext context = BenchmarkContexts.startWeb(properties)) {
+                seedProducts(context.getBean(ProductRepository.class));
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI uri = URI.create("http://localhost:" + port + path);
+
+                run(uri, clients, warmup);
+                Result result = run(uri, clients, duration);
+                System.out.printf("%-10s %8d %12.0f %10.1f %10.1f %8d%n", mode, clients,
+                        result.requests() / (double) duration.toSeconds(),
+                        result.percentileMillis(0.50), result.percentileMillis(0.99), result.errors());
+            }
+        }
+    }
+
+    private static Result run(URI uri, int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+            List<Future<Result>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    // Har bir mijoz o'z kechikishlarini yig'adi, umumiy struktura o'lchovga ta'sir qilmasin
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+
+            Result total = new Result(new long[0], 0);
+            for (Future<Result> future : futures) {
+                total = total.merge(future.get());
+            }
+            return total;
+        }
+    }
+
+    private static void seedProducts(ProductRepository productRepository) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            products.add(Product.builder()
+                    .name("Load test product " + i)
+                    .price(new BigDecimal("9.99"))
+                    .stock(100)
+                    .category("LoadTest")
+                    .isActive(true)
+                    .build());
+        }
+        productRepository.saveAll(products);
+    }
+
+    private record Result(long[] latencies, long errors) {
+
+        long requests() {
+            return latencies.length;
+        }
+
+        Result merge(Result other) {
+            long[] merged = Arrays.copyOf(latencies, latencies.length + other.latencies.length);
+            System.arraycopy(other.latencies, 0, merged, latencies.length, other.latencies.length);
+            return new Result(merged, errors + other.errors);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
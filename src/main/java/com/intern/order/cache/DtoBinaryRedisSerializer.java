@@ -0,0 +1,340 @@
+package com.intern.order.cache;
+
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.ProductResponse;
+import com.intern.order.enums.OrderStatus;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding for the cached DTOs (ProductResponse, OrderResponse, lists of them and strings).
+ * No field names or class names are written: fields follow a fixed order, nullable fields have a presence
+ * byte, BigDecimal is scale + unscaled long and LocalDateTime is epoch second + nano.
+ * <p>
+ * Layout: {@code MAGIC, SCHEMA_VERSION, type tag, payload}. A value written with a different schema version,
+ * or holding an enum constant this instance does not know, is read as {@code null}, i.e. a cache miss that
+ * gets recomputed, never as a wrong object or an exception. Any other type is handed to the fallback
+ * serializer under its own tag.
+ * <p>
+ * Bump {@link #SCHEMA_VERSION} whenever a DTO field is added, removed or reordered, or an enum written here
+ * gains a constant. The version is also part of the Redis key prefix (see RedisConfig), so old and new
+ * instances never read each other's entries during a rolling deploy.
+ */
+public class DtoBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    public static final int SCHEMA_VERSION = 2; // 2: OrderStatus.RECEIVED va REJECTED
+
+    private static final byte MAGIC = (byte) 0xB1;
+
+    private static final byte FALLBACK = 0;
+    private static final byte STRING = 1;
+    private static final byte PRODUCT = 2;
+    private static final byte PRODUCT_LIST = 3;
+    private static final byte ORDER = 4;
+    private static final byte ORDER_LIST = 5;
+
+    private final RedisSerializer<Object> fallback;
+
+    public DtoBinaryRedisSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(SCHEMA_VERSION);
+            if (value instanceof String string) {
+                out.writeByte(STRING);
+                writeString(out, string);
+            } else if (value instanceof ProductResponse product) {
+                out.writeByte(PRODUCT);
+                writeProduct(out, product);
+            } else if (value instanceof OrderResponse order) {
+                out.writeByte(ORDER);
+                writeOrder(out, order);
+            } else if (isListOf(value, ProductResponse.class)) {
+                out.writeByte(PRODUCT_LIST);
+                List<?> products = (List<?>) value;
+                out.writeInt(products.size());
+                for (Object product : products) {
+                    writeProduct(out, (ProductResponse) product);
+                }
+            } else if (isListOf(value, OrderResponse.class)) {
+                out.writeByte(ORDER_LIST);
+                List<?> orders = (List<?>) value;
+                out.writeInt(orders.size());
+                for (Object order : orders) {
+                    writeOrder(out, (OrderResponse) order);
+                }
+            } else {
+                out.writeByte(FALLBACK);
+                out.write(fallback.serialize(value));
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Could not serialize " + value.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 3) {
+            return null;
+        }
+        if (bytes[0] != MAGIC || bytes[1] != SCHEMA_VERSION) {
+            return null; // Boshqa sxema versiyasi: kesh "miss" deb hisoblanadi
+        }
+        byte type = bytes[2];
+        if (type == FALLBACK) {
+            byte[] payload = new byte[bytes.length - 3];
+            System.arraycopy(bytes, 3, payload, 0, payload.length);
+            return fallback.deserialize(payload);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3))) {
+            return switch (type) {
+                case STRING -> readString(in);
+                case PRODUCT -> readProduct(in);
+                case ORDER -> readOrder(in);
+                case PRODUCT_LIST -> {
+                    int size = in.readInt();
+                    List<ProductResponse> products = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        products.add(readProduct(in));
+                    }
+                    yield products;
+                }
+                case ORDER_LIST -> {
+                    int size = in.readInt();
+                    List<OrderResponse> orders = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        orders.add(readOrder(in));
+                    }
+                    yield orders;
+                }
+                default -> null;
+            };
+        } catch (UnknownConstantException e) {
+            return null; // Yangiroq instansiya yozgan qiymat: kesh "miss" deb hisoblanadi
+        } catch (IOException e) {
+            throw new SerializationException("Could not deserialize cached value of type " + type, e);
+        }
+    }
+
+    // Bo'sh ro'yxatning element turi noma'lum, u fallback orqali yoziladi
+    private static boolean isListOf(Object value, Class<?> elementType) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!elementType.isInstance(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeProduct(DataOutputStream out, ProductResponse product) throws IOException {
+        writeLong(out, product.getId());
+        writeString(out, product.getName());
+        writeDecimal(out, product.getPrice());
+        writeInteger(out, product.getStock());
+        writeString(out, product.getCategory());
+        writeBoolean(out, product.getIsActive());
+        writeDateTime(out, product.getCreatedAt());
+    }
+
+    private static ProductResponse readProduct(DataInputStream in) throws IOException {
+        return ProductResponse.builder()
+                .id(readLong(in))
+                .name(readString(in))
+                .price(readDecimal(in))
+                .stock(readInteger(in))
+                .category(readString(in))
+                .isActive(readBoolean(in))
+                .createdAt(readDateTime(in))
+                .build();
+    }
+
+    private static void writeOrder(DataOutputStream out, OrderResponse order) throws IOException {
+        writeLong(out, order.getId());
+        writeString(out, order.getCustomerName());
+        writeString(out, order.getCustomerEmail());
+        writeDateTime(out, order.getOrderDate());
+        writeString(out, order.getStatus() == null ? null : order.getStatus().name());
+        writeDecimal(out, order.getTotalAmount());
+
+        List<OrderItemResponse> items = order.getOrderItems();
+        out.writeInt(items == null ? -1 : items.size());
+        if (items != null) {
+            for (OrderItemResponse item : items) {
+                writeLong(out, item.getProductId());
+                writeString(out, item.getProductName());
+                writeInteger(out, item.getQuantity());
+                writeDecimal(out, item.getUnitPrice());
+                writeDecimal(out, item.getTotalPrice());
+            }
+        }
+    }
+
+    private static OrderResponse readOrder(DataInputStream in) throws IOException {
+        OrderResponse.OrderResponseBuilder order = OrderResponse.builder()
+                .id(readLong(in))
+                .customerName(readString(in))
+                .customerEmail(readString(in))
+                .orderDate(readDateTime(in));
+        String status = readString(in);
+        order.status(status == null ? null : readStatus(status))
+                .totalAmount(readDecimal(in));
+
+        int size = in.readInt();
+        if (size >= 0) {
+            List<OrderItemResponse> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(OrderItemResponse.builder()
+                        .productId(readLong(in))
+                        .productName(readString(in))
+                        .quantity(readInteger(in))
+                        .unitPrice(readDecimal(in))
+                        .totalPrice(readDecimal(in))
+                        .build());
+            }
+            order.orderItems(items);
+        }
+        return order.build();
+    }
+
+    private static OrderStatus readStatus(String name) throws UnknownConstantException {
+        try {
+            return OrderStatus.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new UnknownConstantException();
+        }
+    }
+
+    /**
+     * An enum name unknown to this instance; the whole value is treated as a cache miss.
+     */
+    private static final class UnknownConstantException extends IOException {
+    }
+
+    // --- Nullable maydonlar: avval "bor/yo'q" bayti, keyin qiymat ---
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(DataInputStream in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+
+    /**
+     * Scale, then the unscaled value as a long when it fits (always true for prices), otherwise as bytes.
+     */
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(0);
+            out.writeInt(value.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] magnitude = unscaled.toByteArray();
+            out.writeByte(1);
+            out.writeInt(value.scale());
+            out.writeInt(magnitude.length);
+            out.write(magnitude);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        if (kind < 0) {
+            return null;
+        }
+        int scale = in.readInt();
+        if (kind == 0) {
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        byte[] magnitude = new byte[in.readInt()];
+        in.readFully(magnitude);
+        return new BigDecimal(new BigInteger(magnitude), scale);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
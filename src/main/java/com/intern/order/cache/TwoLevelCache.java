@@ -0,0 +1,142 @@
+package com.intern.order.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A bounded in-JVM Caffeine (W-TinyLFU) tier in front of a {@link RedisCache}.
+ * Reads are served from the near tier when possible and fall back to Redis; every write goes to
+ * Redis first and is then announced to the other instances so they drop their near copy.
+ * <p>
+ * Near entries are keyed by {@code String.valueOf(key)}, the same form Redis uses, so that
+ * invalidation messages (which carry keys as text) match them. Cached objects are shared between
+ * callers and must not be modified.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final RedisCache redisCache;
+    private final Cache<String, Object> nearCache;
+    private final TwoLevelCacheManager.InvalidationPublisher publisher;
+
+    TwoLevelCache(String name, RedisCache redisCache, Cache<String, Object> nearCache,
+                  TwoLevelCacheManager.InvalidationPublisher publisher) {
+        super(false); // Redis konfiguratsiyasida ham null qiymatlar keshlanmaydi
+        this.name = name;
+        this.redisCache = redisCache;
+        this.nearCache = nearCache;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public RedisCache getRedisCache() {
+        return redisCache;
+    }
+
+    public Cache<String, Object> getNearCache() {
+        return nearCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String nearKey = nearKey(key);
+        Object value = nearCache.getIfPresent(nearKey);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        nearCache.put(nearKey, wrapper.get());
+        return wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String nearKey = nearKey(key);
+        Object value = nearCache.getIfPresent(nearKey);
+        if (value != null) {
+            return (T) value;
+        }
+        // RedisCache qiymatni bir marta hisoblaydi va saqlaydi, near tier faqat natijani eslab qoladi
+        T loaded = redisCache.get(key, valueLoader);
+        if (loaded != null) {
+            nearCache.put(nearKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        if (value == null) {
+            nearCache.invalidate(nearKey(key));
+        } else {
+            nearCache.put(nearKey(key), value);
+        }
+        publisher.evicted(name, nearKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        if (existing == null) {
+            // Yangi qiymat yozildi: boshqa instance'lardagi eski nusxalar o'chirilishi kerak
+            if (value != null) {
+                nearCache.put(nearKey(key), value);
+            }
+            publisher.evicted(name, nearKey(key));
+        } else if (existing.get() != null) {
+            nearCache.put(nearKey(key), existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        nearCache.invalidate(nearKey(key));
+        publisher.evicted(name, nearKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        nearCache.invalidate(nearKey(key));
+        publisher.evicted(name, nearKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        nearCache.invalidateAll();
+        publisher.cleared(name);
+    }
+
+    void evictNear(String nearKey) {
+        nearCache.invalidate(nearKey);
+    }
+
+    void clearNear() {
+        nearCache.invalidateAll();
+    }
+
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
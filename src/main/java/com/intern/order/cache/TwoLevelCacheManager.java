@@ -0,0 +1,111 @@
+package com.intern.order.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.intern.order.config.NearCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps every cache of a {@link RedisCacheManager} in a {@link TwoLevelCache}. Invalidations are
+ * broadcast over Redis pub/sub and applied by {@link #onMessage}. Pub/sub is fire-and-forget, so a
+ * lost message leaves a stale near entry for at most {@code app.cache.near.ttl}.
+ * Transaction-aware: writes and evictions are applied after commit.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    private static final char SEPARATOR = '\n';
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final RedisCacheManager redisCacheManager;
+    private final NearCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+    private final InvalidationPublisher publisher = new InvalidationPublisher();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, NearCacheProperties properties,
+                                StringRedisTemplate redisTemplate) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return redisCacheManager.getCacheNames().stream()
+                .map(name -> wrap((RedisCache) redisCacheManager.getCache(name)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache redisCache = redisCacheManager.getCache(name);
+        return redisCache == null ? null : wrap((RedisCache) redisCache);
+    }
+
+    /**
+     * Applies an invalidation published by another instance: EVICT/CLEAR, cache name and key, one per line.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 4);
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = twoLevelCaches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[1])) {
+            cache.clearNear();
+        } else if (EVICT.equals(parts[1]) && parts.length == 4) {
+            cache.evictNear(parts[3]);
+        }
+    }
+
+    private TwoLevelCache wrap(RedisCache redisCache) {
+        return twoLevelCaches.computeIfAbsent(redisCache.getName(), name -> new TwoLevelCache(name, redisCache,
+                Caffeine.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getTtl())
+                        .recordStats()
+                        .build(),
+                publisher));
+    }
+
+    final class InvalidationPublisher {
+
+        void evicted(String cacheName, String key) {
+            publish(EVICT + SEPARATOR + cacheName + SEPARATOR + key);
+        }
+
+        void cleared(String cacheName) {
+            publish(CLEAR + SEPARATOR + cacheName);
+        }
+
+        private void publish(String body) {
+            try {
+                redisTemplate.convertAndSend(properties.getInvalidationChannel(), instanceId + SEPARATOR + body);
+            } catch (RuntimeException e) {
+                // Redis'ga yozish allaqachon muvaffaqiyatli bo'lgan; boshqa instance'lar eski nusxani TTL tugaguncha ko'radi
+                log.warn("Failed to publish near cache invalidation for {}", body, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.intern.order.concurrency;
+
+import com.intern.order.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * How many requests of one endpoint class may run at once, adjusted to the latency they observe.
+ * <p>
+ * Uses the gradient algorithm of Netflix concurrency-limits ("Gradient2"): every sample window the average
+ * latency of the window is compared with its long-term average. While they are close (within app.concurrency-limit
+ * .rtt-tolerance) the limit grows by about its square root; once requests get slower, e.g. because they queue
+ * for a database connection, the limit shrinks in proportion, down to half per window. Requests above the limit
+ * are rejected at once instead of waiting in the connection pool, so latency stays low for the ones admitted.
+ * <p>
+ * Acquiring is a CAS loop; only completed requests take a short lock to record their latency.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final ConcurrencyLimitProperties.EndpointClass endpointClass;
+    private final ConcurrencyLimitProperties properties;
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int limit;
+
+    // Quyidagi maydonlar faqat lock ostida o'zgaradi
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowOverloaded;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties.EndpointClass endpointClass,
+                                    ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+        this.endpointClass = endpointClass;
+        this.properties = properties;
+        this.minLimit = endpointClass.getMinLimit();
+        this.maxLimit = Math.max(endpointClass.getMaxLimit(), minLimit);
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = Math.clamp(endpointClass.getInitialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * @return {@code false} if the limit is reached; the request must then be rejected without calling {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos how long the request took
+     * @param overloaded the request failed in a way that may mean overload (a 5xx response), which shrinks the limit
+     */
+    public void release(long rttNanos, boolean overloaded) {
+        int running = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            windowRttSum += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, running);
+            windowOverloaded |= overloaded;
+
+            long now = nanoClock.getAsLong();
+            if (now - windowStart >= properties.getSampleWindow().toNanos() && windowSamples >= properties.getMinWindowSamples()) {
+                updateLimit((double) windowRttSum / windowSamples);
+                windowStart = now;
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowOverloaded = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot without recording a latency, e.g. for streaming responses whose duration says nothing about load.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private void updateLimit(double shortRtt) {
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / properties.getLongWindow();
+        // Yuklama tushgandan keyin uzoq muddatli o'rtacha juda baland qolmasin, aks holda limit sekin tiklanadi
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double newLimit;
+        if (windowOverloaded) {
+            newLimit = estimatedLimit / 2;
+        } else if (windowMaxInFlight * 2 < estimatedLimit) {
+            // Limitning yarmi ham ishlatilmagan: kechikish limit haqida hech narsa aytmaydi
+            return;
+        } else {
+            double gradient = Math.clamp(properties.getRttTolerance() * longRtt / shortRtt, 0.5, 1.0);
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        }
+        double smoothing = properties.getSmoothing();
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    public ConcurrencyLimitProperties.EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    public String getName() {
+        return endpointClass.getName();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.intern.order.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts every request of a configured endpoint class (app.concurrency-limit.classes) under that class's
+ * {@link AdaptiveConcurrencyLimit}. Requests over the limit get 503 with Retry-After straight away.
+ * <p>
+ * Runs as the last security filter, so rejected-by-authorization requests never take a slot.
+ * Exports per class, tagged {@code class}: {@code concurrency.limit}, {@code concurrency.in.flight} and
+ * {@code concurrency.rejected}.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<AdaptiveConcurrencyLimit> limits = new ArrayList<>();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        for (ConcurrencyLimitProperties.EndpointClass endpointClass : properties.getClasses()) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(endpointClass, properties, System::nanoTime);
+            limits.add(limit);
+            Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Requests of the endpoint class allowed to run at once")
+                    .tag("class", limit.getName())
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests of the endpoint class running now")
+                    .tag("class", limit.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("concurrency.rejected", limit, AdaptiveConcurrencyLimit::getRejected)
+                    .description("Requests rejected because the endpoint class was at its limit")
+                    .tag("class", limit.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = properties.isEnabled() ? findLimit(request) : null;
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limit.tryAcquire()) {
+            log.debug("Concurrency limit of '{}' reached ({}), rejecting {} {}", limit.getName(), limit.getLimit(),
+                    request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Server is busy, please retry shortly"));
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean sampled = false;
+        try {
+            filterChain.doFilter(request, response);
+            // SSE va NDJSON eksport: oqim davomiyligi yuklama haqida hech narsa aytmaydi
+            if (!request.isAsyncStarted()) {
+                limit.release(System.nanoTime() - startedAt, response.getStatus() >= 500);
+                sampled = true;
+            }
+        } finally {
+            if (!sampled) {
+                limit.releaseWithoutSample();
+            }
+        }
+    }
+
+    private AdaptiveConcurrencyLimit findLimit(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (AdaptiveConcurrencyLimit limit : limits) {
+            ConcurrencyLimitProperties.EndpointClass endpointClass = limit.getEndpointClass();
+            if (endpointClass.getMethod() != null && !endpointClass.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : endpointClass.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return limit;
+                }
+            }
+        }
+        return null;
+    }
+}
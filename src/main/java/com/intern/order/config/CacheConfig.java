@@ -0,0 +1,102 @@
+package com.intern.order.config;
+
+import com.intern.order.cache.TwoLevelCache;
+import com.intern.order.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Cache manager for spring.cache.type=redis (the default). With app.cache.near.enabled=true every cache
+ * gets an in-JVM tier in front of Redis ({@link TwoLevelCacheManager}); otherwise it is plain Redis.
+ * Either way cache writes are applied after the transaction commits.
+ * Replaces Spring Boot's Redis cache auto-configuration, but honours the same spring.cache.* properties
+ * and {@link RedisCacheManagerBuilderCustomizer} beans.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+@ConditionalOnProperty(prefix = "spring.cache", name = "type", havingValue = "redis", matchIfMissing = true)
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.near", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TwoLevelCacheManager twoLevelCacheManager(RedisConnectionFactory connectionFactory,
+                                                     RedisCacheConfiguration cacheConfiguration,
+                                                     CacheProperties cacheProperties,
+                                                     ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+                                                     NearCacheProperties nearCacheProperties,
+                                                     StringRedisTemplate redisTemplate) {
+        // Tranzaksiyani TwoLevelCacheManager o'zi kuzatadi: Redis qatlami ham kechiktirilsa, commit'dan keyingi yozuvlar yo'qoladi
+        RedisCacheManager redisCacheManager = redisCacheManagerBuilder(connectionFactory, cacheConfiguration,
+                cacheProperties, customizers).build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, nearCacheProperties, redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.near", name = "enabled", havingValue = "false")
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               RedisCacheConfiguration cacheConfiguration,
+                                               CacheProperties cacheProperties,
+                                               ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers) {
+        return redisCacheManagerBuilder(connectionFactory, cacheConfiguration, cacheProperties, customizers)
+                .transactionAware()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.near", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer nearCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                      TwoLevelCacheManager cacheManager,
+                                                                      NearCacheProperties nearCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(nearCacheProperties.getInvalidationChannel()));
+        return container;
+    }
+
+    /**
+     * Publishes the usual cache.gets/puts/evictions meters for both tiers, told apart by a "tier" tag.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> registry -> {
+            new CaffeineCacheMetrics<>(cache.getNearCache(), cache.getName(), Tags.of(tags).and(Tag.of("tier", "near")))
+                    .bindTo(registry);
+            new RedisCacheMetrics(cache.getRedisCache(), Tags.of(tags).and(Tag.of("tier", "redis")))
+                    .bindTo(registry);
+        };
+    }
+
+    private static RedisCacheManager.RedisCacheManagerBuilder redisCacheManagerBuilder(
+            RedisConnectionFactory connectionFactory, RedisCacheConfiguration cacheConfiguration,
+            CacheProperties cacheProperties, ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration);
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            builder.initialCacheNames(new LinkedHashSet<>(cacheProperties.getCacheNames()));
+        }
+        if (cacheProperties.getRedis().isEnableStatistics()) {
+            builder.enableStatistics();
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+}
@@ -0,0 +1,85 @@
+package com.intern.order.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Latencies are averaged over this window (and at least {@link #minWindowSamples} requests) before the limit moves.
+     */
+    @NotNull
+    private Duration sampleWindow = Duration.ofMillis(100);
+
+    @Positive(message = "Minimum number of samples per window must be a positive number")
+    private int minWindowSamples = 10;
+
+    /**
+     * How many windows the long-term latency average spans.
+     */
+    @Positive(message = "Long window must be a positive number")
+    private int longWindow = 100;
+
+    /**
+     * Latency may exceed its long-term average by this factor before the limit shrinks.
+     */
+    @DecimalMin(value = "1.0", message = "RTT tolerance must be at least 1.0")
+    private double rttTolerance = 1.5;
+
+    /**
+     * Share of the newly computed limit taken over in each window.
+     */
+    @DecimalMin(value = "0.0", inclusive = false, message = "Smoothing must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Smoothing must be between 0 and 1")
+    private double smoothing = 0.2;
+
+    /**
+     * Checked in order; the first class matching the request applies. Requests matching no class are not limited.
+     */
+    @Valid
+    private List<EndpointClass> classes = new ArrayList<>();
+
+    @Data
+    public static class EndpointClass {
+
+        @NotBlank(message = "Endpoint class name must not be blank")
+        private String name;
+
+        /**
+         * HTTP method to match, or any method if not set.
+         */
+        private String method;
+
+        /**
+         * Ant-style path patterns, e.g. /api/products/**.
+         */
+        @NotEmpty(message = "Endpoint class must match at least one path")
+        private List<String> paths = new ArrayList<>();
+
+        @Positive(message = "Initial concurrency limit must be a positive number")
+        private int initialLimit = 20;
+
+        @Positive(message = "Minimum concurrency limit must be a positive number")
+        private int minLimit = 4;
+
+        @Positive(message = "Maximum concurrency limit must be a positive number")
+        private int maxLimit = 200;
+    }
+}
@@ -0,0 +1,27 @@
+package com.intern.order.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Database work one HTTP request is expected to stay within. Requests over either limit are counted in
+ * {@code http.server.db.budget.exceeded} and logged, they are not rejected.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.metrics.db-budget")
+public class DbBudgetProperties {
+
+    private boolean enabled = true;
+
+    @Positive(message = "Statement budget must be a positive number")
+    private int statements = 20;
+
+    @NotNull
+    private Duration time = Duration.ofMillis(100);
+}
@@ -1,11 +1,16 @@
 package com.intern.order.config;
 
+import com.intern.order.enums.UserLookupMode;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Data
 @Validated
 @ConfigurationProperties(prefix = "app.jwt")
@@ -16,4 +21,19 @@ public class JwtProperties {
 
     @Positive(message = "JWT expiration time must be a positive number")
     private long expirationMs;
+
+    /**
+     * How many verified tokens to remember so repeated requests skip signature checks; 0 disables the cache.
+     */
+    @PositiveOrZero(message = "Verified token cache size must not be negative")
+    private long verifiedTokenCacheSize = 10_000;
+
+    @NotNull
+    private UserLookupMode userLookup = UserLookupMode.CLAIMS;
+
+    /**
+     * TTL of the "users" cache used in CACHED mode.
+     */
+    @NotNull
+    private Duration userCacheTtl = Duration.ofSeconds(30);
 }
\ No newline at end of file
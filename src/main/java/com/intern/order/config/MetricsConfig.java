@@ -0,0 +1,19 @@
+package com.intern.order.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Makes {@code @Timed} work on service beans. Each timed method is recorded as {@code service.method}
+ * with {@code class}, {@code method} and {@code exception} (the outcome, "none" on success) tags.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.intern.order.config;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.cache.near")
+public class NearCacheProperties {
+
+    /**
+     * When false, caches go straight to Redis (no in-JVM tier, no pub/sub).
+     */
+    private boolean enabled = true;
+
+    @Positive(message = "Near cache size must be a positive number")
+    private long maximumSize = 10_000;
+
+    /**
+     * Upper bound on how long a near entry can stay stale if an invalidation message is lost.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofSeconds(30);
+
+    @NotBlank(message = "Near cache invalidation channel must not be blank")
+    private String invalidationChannel = "cache:invalidation";
+}
@@ -0,0 +1,33 @@
+package com.intern.order.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.orders.events")
+public class OrderEventProperties {
+
+    /**
+     * How many of the latest events are kept for subscribers that reconnect with Last-Event-ID.
+     */
+    @Positive(message = "Order event replay size must be a positive number")
+    private int replaySize = 10_000;
+
+    /**
+     * Events queued per subscriber. A subscriber that falls further behind is disconnected and has to resume.
+     */
+    @Positive(message = "Order event subscriber buffer must be a positive number")
+    private int subscriberBuffer = 256;
+
+    @NotNull
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @NotNull
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
@@ -0,0 +1,29 @@
+package com.intern.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.service.idempotency.IdempotencyStore;
+import com.intern.order.service.idempotency.LocalIdempotencyStore;
+import com.intern.order.service.idempotency.RedisIdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Chooses where Idempotency-Key values of POST /api/orders are kept (app.orders.idempotency.backend).
+ */
+@Configuration
+public class OrderIdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.orders.idempotency", name = "backend", havingValue = "local")
+    public IdempotencyStore localIdempotencyStore(OrderIdempotencyProperties properties) {
+        return new LocalIdempotencyStore(properties.getLocalMaximumSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.orders.idempotency", name = "backend", havingValue = "redis", matchIfMissing = true)
+    public IdempotencyStore redisIdempotencyStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        return new RedisIdempotencyStore(redisTemplate, objectMapper);
+    }
+}
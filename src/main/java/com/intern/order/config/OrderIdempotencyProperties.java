@@ -0,0 +1,40 @@
+package com.intern.order.config;
+
+import com.intern.order.enums.IdempotencyStoreBackend;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.orders.idempotency")
+public class OrderIdempotencyProperties {
+
+    @NotNull
+    private IdempotencyStoreBackend backend = IdempotencyStoreBackend.REDIS;
+
+    /**
+     * How long the response of a completed request is replayed for its key.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a key stays claimed by a request that neither completes nor fails, e.g. because its instance died.
+     */
+    @NotNull
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long a duplicate waits for the original request to finish before it gets 409.
+     */
+    @NotNull
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    @Positive(message = "Maximum number of locally stored idempotency keys must be a positive number")
+    private long localMaximumSize = 100_000;
+}
@@ -0,0 +1,37 @@
+package com.intern.order.config;
+
+import com.intern.order.metrics.OrderMetrics;
+import com.intern.order.repository.OrderOutboxRepository;
+import com.intern.order.repository.OrderRepository;
+import com.intern.order.service.CustomerOrderHistoryProjector;
+import com.intern.order.service.OrderIntakeWorker;
+import com.intern.order.service.stock.StockAllocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Beans for app.orders.intake.mode=async. In the default sync mode orders are completed in the request.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.orders.intake", name = "mode", havingValue = "async")
+public class OrderIntakeConfig {
+
+    @Bean
+    public OrderIntakeWorker orderIntakeWorker(OrderOutboxRepository outboxRepository,
+                                               OrderRepository orderRepository,
+                                               StockAllocator stockAllocator,
+                                               CustomerOrderHistoryProjector historyProjector,
+                                               ApplicationEventPublisher eventPublisher,
+                                               OrderMetrics orderMetrics,
+                                               PlatformTransactionManager transactionManager,
+                                               OrderIntakeProperties properties) {
+        return new OrderIntakeWorker(outboxRepository, orderRepository, stockAllocator, historyProjector, eventPublisher, orderMetrics,
+                new TransactionTemplate(transactionManager), properties);
+    }
+}
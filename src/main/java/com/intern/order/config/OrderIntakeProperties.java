@@ -0,0 +1,28 @@
+package com.intern.order.config;
+
+import com.intern.order.enums.OrderIntakeMode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.orders.intake")
+public class OrderIntakeProperties {
+
+    @NotNull
+    private OrderIntakeMode mode = OrderIntakeMode.SYNC;
+
+    @Positive(message = "Number of intake workers must be a positive number")
+    private int workers = 2;
+
+    @Positive(message = "Intake batch size must be a positive number")
+    private int batchSize = 100;
+
+    @NotNull
+    private Duration pollInterval = Duration.ofMillis(200);
+}
@@ -0,0 +1,27 @@
+package com.intern.order.config;
+
+import com.intern.order.enums.ProductSearchEngine;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.search")
+public class ProductSearchProperties {
+
+    @NotNull
+    private ProductSearchEngine engine = ProductSearchEngine.DATABASE;
+
+    /**
+     * The in-memory index is dropped (and search falls back to the database) once its estimated size exceeds this.
+     */
+    @NotNull
+    private DataSize memoryBudget = DataSize.ofMegabytes(256);
+
+    @Positive(message = "Search index rebuild batch size must be a positive number")
+    private int rebuildBatchSize = 1000;
+}
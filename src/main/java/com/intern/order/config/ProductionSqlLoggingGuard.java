@@ -0,0 +1,29 @@
+package com.intern.order.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refuses to start the prod profile with SQL printed or pretty-printed by Hibernate, e.g. when the dev
+ * profile is activated next to it. Both write every statement synchronously to stdout on the request thread.
+ */
+@Component
+@Profile("prod")
+public class ProductionSqlLoggingGuard {
+
+    private static final List<String> FORBIDDEN = List.of("hibernate.show_sql", "hibernate.format_sql", "hibernate.highlight_sql");
+
+    public ProductionSqlLoggingGuard(JpaProperties jpaProperties) {
+        if (jpaProperties.isShowSql()) {
+            throw new IllegalStateException("spring.jpa.show-sql must be false in the prod profile");
+        }
+        for (String property : FORBIDDEN) {
+            if (Boolean.parseBoolean(jpaProperties.getProperties().get(property))) {
+                throw new IllegalStateException("spring.jpa.properties." + property + " must be false in the prod profile");
+            }
+        }
+    }
+}
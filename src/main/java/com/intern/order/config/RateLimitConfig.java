@@ -0,0 +1,37 @@
+package com.intern.order.config;
+
+import com.intern.order.security.ratelimit.LocalRateLimiter;
+import com.intern.order.security.ratelimit.RateLimiter;
+import com.intern.order.security.ratelimit.RedisRateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Chooses where rate limit buckets are kept (app.rate-limit.backend).
+ */
+@Configuration
+public class RateLimitConfig {
+
+    private static final long LOCAL_MAXIMUM_BUCKETS = 100_000;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit", name = "backend", havingValue = "local", matchIfMissing = true)
+    public RateLimiter localRateLimiter(RateLimitProperties properties) {
+        // Shuncha vaqt ishlatilmagan bucket yana to'la bo'ladi, uni unutish hech narsani o'zgartirmaydi
+        Duration longestRefill = properties.getRules().stream()
+                .map(rule -> rule.getRefillInterval().multipliedBy(rule.getCapacity()))
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+        return new LocalRateLimiter(LOCAL_MAXIMUM_BUCKETS, longestRefill);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit", name = "backend", havingValue = "redis")
+    public RateLimiter redisRateLimiter(StringRedisTemplate redisTemplate) {
+        return new RedisRateLimiter(redisTemplate);
+    }
+}
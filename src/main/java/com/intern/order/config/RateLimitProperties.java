@@ -0,0 +1,65 @@
+package com.intern.order.config;
+
+import com.intern.order.enums.RateLimitBackend;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    @NotNull
+    private RateLimitBackend backend = RateLimitBackend.LOCAL;
+
+    /**
+     * Checked in order; the first rule matching the request applies. Requests matching no rule are not limited.
+     */
+    @Valid
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        /**
+         * Part of the bucket key, so every rule has its own buckets.
+         */
+        @NotBlank(message = "Rate limit rule name must not be blank")
+        private String name;
+
+        /**
+         * HTTP method to match, or any method if not set.
+         */
+        private String method;
+
+        /**
+         * Ant-style path patterns, e.g. /api/auth/*.
+         */
+        @NotEmpty(message = "Rate limit rule must match at least one path")
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * Requests a client may send in a burst.
+         */
+        @Positive(message = "Rate limit capacity must be a positive number")
+        private int capacity;
+
+        /**
+         * One more request is allowed every interval, up to {@link #capacity}.
+         */
+        @NotNull
+        private Duration refillInterval;
+    }
+}
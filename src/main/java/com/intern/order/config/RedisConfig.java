@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.intern.order.cache.DtoBinaryRedisSerializer;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -46,16 +48,31 @@ public class RedisConfig {
     }
 
     /**
-     * Bu Bean Redis kesh sozlamalarini belgilaydi va faqat Redis uchun
-     * mo'ljallangan maxsus ObjectMapper'dan foydalanadi.
+     * Bu Bean Redis kesh sozlamalarini belgilaydi. DTO'lar ixcham binar formatda saqlanadi,
+     * boshqa turlar uchun maxsus ObjectMapper'li JSON serializer ishlatiladi.
+     * Kalit prefiksida sxema versiyasi bor: yangi versiya deploy qilinganda eski yozuvlar o'qilmaydi.
      */
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues()
+                .computePrefixWith(cacheName -> "v" + DtoBinaryRedisSerializer.SCHEMA_VERSION + ":" + cacheName + "::")
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
-                        new GenericJackson2JsonRedisSerializer(redisObjectMapper())
+                        new DtoBinaryRedisSerializer(new GenericJackson2JsonRedisSerializer(redisObjectMapper()))
                 ));
     }
+
+    /**
+     * Qidiruv avlodi (generation) tokeni uzoqroq yashaydi: u yo'qolsa, barcha qidiruv natijalari
+     * keraksiz ravishda yangidan hisoblanadi. "users" keshi esa qisqa yashaydi: rol o'zgarishlari
+     * shu vaqt ichida kuchga kiradi. Tranzaksiyaga bog'lash CacheConfig'da qilinadi.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer(RedisCacheConfiguration cacheConfiguration,
+                                                                                 JwtProperties jwtProperties) {
+        return builder -> builder
+                .withCacheConfiguration("productSearchGeneration", cacheConfiguration.entryTtl(Duration.ofDays(1)))
+                .withCacheConfiguration("users", cacheConfiguration.entryTtl(jwtProperties.getUserCacheTtl()));
+    }
 }
\ No newline at end of file
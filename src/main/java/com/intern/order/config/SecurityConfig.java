@@ -1,6 +1,8 @@
 package com.intern.order.config;
 
+import com.intern.order.concurrency.ConcurrencyLimitFilter;
 import com.intern.order.security.JwtAuthenticationFilter;
+import com.intern.order.security.ratelimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +14,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
@@ -21,12 +24,17 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final AuthenticationProvider authenticationProvider;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // 0. /api/auth ostidagi yagona himoyalangan yo'l, ochiq yo'llardan oldin turishi kerak
+                        .requestMatchers(HttpMethod.POST, "/api/auth/users/*/revoke").hasRole("ADMIN")
+
                         // 1. Eng aniq ochiq yo'llar
                         .requestMatchers(
                                 "/api/auth/**",
@@ -36,7 +44,7 @@ public class SecurityConfig {
                         ).permitAll()
 
                         // 2. ADMIN uchun aniq cheklangan yo'llar
-                        .requestMatchers(HttpMethod.POST, "/api/products").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/products", "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers("/api/orders", "/api/orders/**").hasRole("ADMIN")
@@ -50,7 +58,11 @@ public class SecurityConfig {
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Token tekshirilgandan keyin: foydalanuvchi bo'yicha cheklash uchun, lekin controller'gacha
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                // Eng oxirida: ruxsat berilmagan so'rovlar joy egallamaydi
+                .addFilterAfter(concurrencyLimitFilter, AuthorizationFilter.class);
 
         return http.build();
     }
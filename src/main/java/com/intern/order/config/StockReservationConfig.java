@@ -0,0 +1,47 @@
+package com.intern.order.config;
+
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.repository.StockFlushBatchRepository;
+import com.intern.order.service.stock.LocalStockCounterStore;
+import com.intern.order.service.stock.RedisStockCounterStore;
+import com.intern.order.service.stock.ReservationStockAllocator;
+import com.intern.order.service.stock.StockAllocator;
+import com.intern.order.service.stock.StockCounterStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Beans for app.stock.mode=reservation. In the default direct mode
+ * {@link com.intern.order.service.stock.DatabaseStockAllocator} is used instead.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.stock", name = "mode", havingValue = "reservation")
+public class StockReservationConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.stock", name = "backend", havingValue = "local")
+    public StockCounterStore localStockCounterStore(StockReservationProperties properties) {
+        return new LocalStockCounterStore(properties.getShards());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.stock", name = "backend", havingValue = "redis", matchIfMissing = true)
+    public StockCounterStore redisStockCounterStore(StringRedisTemplate redisTemplate) {
+        return new RedisStockCounterStore(redisTemplate);
+    }
+
+    @Bean
+    public StockAllocator reservationStockAllocator(StockCounterStore counterStore,
+                                                    ProductRepository productRepository,
+                                                    StockFlushBatchRepository flushBatchRepository,
+                                                    PlatformTransactionManager transactionManager) {
+        return new ReservationStockAllocator(counterStore, productRepository, flushBatchRepository,
+                new TransactionTemplate(transactionManager));
+    }
+}
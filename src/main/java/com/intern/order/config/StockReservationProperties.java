@@ -0,0 +1,29 @@
+package com.intern.order.config;
+
+import com.intern.order.enums.StockCounterBackend;
+import com.intern.order.enums.StockMode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.stock")
+public class StockReservationProperties {
+
+    @NotNull
+    private StockMode mode = StockMode.DIRECT;
+
+    @NotNull
+    private StockCounterBackend backend = StockCounterBackend.REDIS;
+
+    @Positive(message = "Number of stock counter shards must be a positive number")
+    private int shards = 16;
+
+    @NotNull
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
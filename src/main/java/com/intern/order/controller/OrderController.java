@@ -1,9 +1,23 @@
 package com.intern.order.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.OrderIntakeProperties;
+import com.intern.order.dto.BulkCancelRequest;
+import com.intern.order.dto.BulkCreateOrderRequest;
+import com.intern.order.dto.BulkOrderResponse;
+import com.intern.order.dto.BulkStatusUpdateRequest;
+import com.intern.order.dto.BulkStatusUpdateResponse;
 import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderPageResponse;
 import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.OrderSearchCriteria;
+import com.intern.order.enums.OrderIntakeMode;
 import com.intern.order.enums.OrderStatus;
+import com.intern.order.service.BulkOrderService;
 import com.intern.order.service.OrderService;
+import com.intern.order.service.events.OrderEventBroadcaster;
+import com.intern.order.service.idempotency.IdempotentResponse;
+import com.intern.order.service.idempotency.OrderIdempotencyService;
 import com.intern.order.validation.annotations.ValueOfEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,12 +26,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -27,19 +53,55 @@ import java.util.List;
 @Validated
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
+    private final ObjectMapper objectMapper;
+    private final OrderIntakeProperties intakeProperties;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final OrderIdempotencyService orderIdempotencyService;
 
-    @Operation(summary = "Create a new order (Public)")
+    @Operation(summary = "Create a new order (Public)",
+            description = "With app.orders.intake.mode=async the order is only received (202, status RECEIVED) and "
+                    + "confirmed or rejected shortly after; poll the Location URL for the outcome. "
+                    + "Send an Idempotency-Key to retry safely: a repeated key returns the first response "
+                    + "(with Idempotent-Replayed: true) instead of creating another order.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Order created successfully"),
+            @ApiResponse(responseCode = "202", description = "Order received, stock is reserved asynchronously"),
             @ApiResponse(responseCode = "400", description = "Invalid request body (e.g., validation error, duplicate products)"),
             @ApiResponse(responseCode = "404", description = "Product in order not found"),
-            @ApiResponse(responseCode = "409", description = "Conflict (e.g., insufficient stock)")
+            @ApiResponse(responseCode = "409", description = "Conflict (e.g., insufficient stock, or the request with this Idempotency-Key is still running)"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request body")
     })
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse createdOrder = orderService.createOrder(request);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @Parameter(description = "Client-generated key, e.g. a UUID, that identifies this order across retries")
+            @Size(min = 1, max = 255, message = "Idempotency-Key must be between 1 and 255 characters")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return orderResponse(intake(request), false);
+        }
+        IdempotentResponse result = orderIdempotencyService.execute(idempotencyKey, request, this::intake);
+        return orderResponse(result.response(), result.replayed());
+    }
+
+    @Operation(summary = "Import many orders at once (ADMIN only)",
+            description = "Orders that fail validation are reported per order in the results; the others are created.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the per-order results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "409", description = "Stock was taken by concurrent orders while importing; retry the batch")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOrderResponse> createOrders(@Valid @RequestBody BulkCreateOrderRequest request) {
+        return ResponseEntity.ok(bulkOrderService.createOrders(request.getOrders()));
     }
 
     @Operation(summary = "Get all orders (ADMIN only)")
@@ -54,6 +116,66 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @Operation(summary = "Get orders page by page, newest first (ADMIN only)",
+            description = "Keyset pagination: pass nextCursor from the previous response as 'cursor' to get the next page.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of orders"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, page size or cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<OrderPageResponse> getOrdersPage(
+            @Parameter(description = "Only orders with this status") @ValueOfEnum(enumClass = OrderStatus.class, message = "Invalid status provided") @RequestParam(required = false) String status,
+            @Parameter(description = "Only orders placed at or after this time", example = "2025-01-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only orders placed before this time", example = "2025-02-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of orders per page", example = "50") @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(searchCriteria(status, from, to), cursor, size));
+    }
+
+    @Operation(summary = "Export orders as newline-delimited JSON (ADMIN only)",
+            description = "Streams one order per line, newest first, while reading them from the database.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export started"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Only orders with this status") @ValueOfEnum(enumClass = OrderStatus.class, message = "Invalid status provided") @RequestParam(required = false) String status,
+            @Parameter(description = "Only orders placed at or after this time", example = "2025-01-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only orders placed before this time", example = "2025-02-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderSearchCriteria criteria = searchCriteria(status, from, to);
+        StreamingResponseBody body = out -> orderService.exportOrders(criteria, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Stream order status changes as Server-Sent Events (ADMIN only)",
+            description = "Emits an 'order-status' event for every committed status change. Reconnect with the Last-Event-ID "
+                    + "header to receive the events missed meanwhile; a 'resync' event means they are no longer available.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(
+            @Parameter(description = "Only events of this order; omit for all orders", example = "1") @RequestParam(required = false) Long orderId,
+            @Parameter(description = "ID of the last event received before reconnecting") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return orderEventBroadcaster.subscribe(orderId, lastEventId);
+    }
+
     @Operation(summary = "Get an order by its ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order found"),
@@ -71,7 +193,8 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByCustomerEmail(email));
     }
 
-    @Operation(summary = "Update the status of an order")
+    @Operation(summary = "Update the status of an order",
+            description = "Allowed: PENDING -> CONFIRMED -> SHIPPED -> DELIVERED. Use DELETE to cancel an order.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order status updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid status transition"),
@@ -86,6 +209,36 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, OrderStatus.valueOf(status.toUpperCase())));
     }
 
+    @Operation(summary = "Move many orders to the same status (ADMIN only)",
+            description = "Every order is checked against the same transitions as the single-order update. "
+                    + "Valid ones are updated together; the results report the outcome per order ID.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the per-order results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PutMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus()));
+    }
+
+    @Operation(summary = "Cancel many orders at once (ADMIN only)",
+            description = "All cancellable orders are cancelled in one transaction and their stock is returned together. "
+                    + "The results report the outcome per order ID.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the per-order results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping("/cancel")
+    public ResponseEntity<BulkStatusUpdateResponse> cancelOrders(@Valid @RequestBody BulkCancelRequest request) {
+        return ResponseEntity.ok(orderService.cancelOrders(request.getOrderIds()));
+    }
+
     @Operation(summary = "Cancel an order by its ID")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Order cancelled successfully and stock restored"),
@@ -97,4 +250,36 @@ public class OrderController {
         orderService.cancelOrder(id);
         return ResponseEntity.noContent().build();
     }
+
+    private OrderResponse intake(CreateOrderRequest request) {
+        return intakeProperties.getMode() == OrderIntakeMode.ASYNC
+                ? orderService.acceptOrder(request)
+                : orderService.createOrder(request);
+    }
+
+    // Javob holati buyurtma statusidan olinadi: takror javob rejim o'zgargan bo'lsa ham birinchi javob bilan bir xil
+    private static ResponseEntity<OrderResponse> orderResponse(OrderResponse order, boolean replayed) {
+        ResponseEntity.BodyBuilder response;
+        if (order.getStatus() == OrderStatus.RECEIVED) {
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(order.getId())
+                    .toUri();
+            response = ResponseEntity.accepted().location(location);
+        } else {
+            response = ResponseEntity.status(HttpStatus.CREATED);
+        }
+        if (replayed) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(order);
+    }
+
+    private static OrderSearchCriteria searchCriteria(String status, LocalDateTime from, LocalDateTime to) {
+        return OrderSearchCriteria.builder()
+                .status(status == null ? null : OrderStatus.valueOf(status.toUpperCase()))
+                .from(from)
+                .to(to)
+                .build();
+    }
 }
\ No newline at end of file
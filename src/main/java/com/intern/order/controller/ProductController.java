@@ -2,6 +2,7 @@ package com.intern.order.controller;
 
 import com.intern.order.dto.CreateProductRequest;
 import com.intern.order.dto.ProductResponse;
+import com.intern.order.dto.SearchIndexStatsResponse;
 import com.intern.order.dto.UpdateProductRequest;
 import com.intern.order.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,17 +12,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
+@Validated
 @RequiredArgsConstructor
 @Tag(name = "01. Products", description = "API for managing products")
 public class ProductController {
@@ -87,12 +92,31 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Search for products by name and/or category")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved a list of matching products")
+    @Operation(summary = "Search for products by name and/or category",
+            description = "Results are ranked by relevance and paged. On PostgreSQL the name also matches by whole words.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of matching products"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size")
+    })
     @GetMapping("/search")
     public ResponseEntity<List<ProductResponse>> searchProducts(
             @Parameter(description = "Part of the product name to search for", example = "Laptop") @RequestParam(required = false) String name,
-            @Parameter(description = "Part of the category name to search for", example = "Electronics") @RequestParam(required = false) String category) {
-        return ResponseEntity.ok(productService.searchProducts(name, category));
+            @Parameter(description = "Part of the category name to search for", example = "Electronics") @RequestParam(required = false) String category,
+            @Parameter(description = "Zero-based page number", example = "0") @RequestParam(defaultValue = "0") @Min(0) @Max(1000) int page,
+            @Parameter(description = "Number of products per page", example = "20") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ResponseEntity.ok(productService.searchProducts(name, category, page, size));
+    }
+
+    @Operation(summary = "Rebuild the in-memory search index from the database (ADMIN only)",
+            description = "Only available when app.search.engine=in-memory. Also drops entries of updated and deleted products.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Index rebuilt; the response describes its size"),
+            @ApiResponse(responseCode = "400", description = "In-memory search is disabled"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<SearchIndexStatsResponse> rebuildSearchIndex() {
+        return ResponseEntity.ok(productService.rebuildSearchIndex());
     }
-}
\ No newline at end of file
+}
@@ -4,15 +4,22 @@ import com.intern.order.entity.User;
 import com.intern.order.enums.Role;
 import com.intern.order.repository.UserRepository;
 import com.intern.order.security.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
+@Timed("service.method")
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
@@ -50,4 +57,17 @@ public class AuthService {
         return new AuthResponse(token);
     }
 
+    /**
+     * Invalidates every token issued to the user so far. Takes effect immediately with
+     * app.jwt.user-lookup=cached; in claims mode the tokens stay usable until they expire.
+     */
+    @Transactional
+    @CacheEvict(value = "users", key = "#username")
+    public void revokeTokens(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        user.setTokensValidAfter(LocalDateTime.now());
+        userRepository.save(user);
+    }
+
 }
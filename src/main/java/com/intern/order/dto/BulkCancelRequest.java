@@ -0,0 +1,17 @@
+package com.intern.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request body for cancelling many orders at once")
+public class BulkCancelRequest {
+    @Schema(description = "IDs of the orders to cancel; duplicates are ignored", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty @Size(max = 10000)
+    private List<@NotNull Long> orderIds;
+}
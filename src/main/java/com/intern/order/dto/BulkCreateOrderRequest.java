@@ -0,0 +1,17 @@
+package com.intern.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request body for importing many orders at once")
+public class BulkCreateOrderRequest {
+    @Schema(description = "Orders to create, processed in the given order", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty @Size(max = 10000) @Valid
+    private List<CreateOrderRequest> orders;
+}
@@ -0,0 +1,14 @@
+package com.intern.order.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkOrderResponse {
+    private int created;
+    private int rejected;
+    private List<BulkOrderResult> results;
+}
@@ -0,0 +1,18 @@
+package com.intern.order.dto;
+
+import com.intern.order.enums.BulkOrderResultStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResult {
+    private int index; // position of the order in the request
+    private BulkOrderResultStatus status;
+    private Long orderId; // only for CREATED
+    private String error; // only for REJECTED
+}
@@ -0,0 +1,22 @@
+package com.intern.order.dto;
+
+import com.intern.order.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request body for moving many orders to the same status")
+public class BulkStatusUpdateRequest {
+    @Schema(description = "IDs of the orders to update; duplicates are ignored", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty @Size(max = 10000)
+    private List<@NotNull Long> orderIds;
+
+    @Schema(description = "The new status for every order", example = "SHIPPED", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull
+    private OrderStatus status;
+}
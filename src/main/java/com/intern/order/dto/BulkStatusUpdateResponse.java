@@ -0,0 +1,14 @@
+package com.intern.order.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkStatusUpdateResponse {
+    private int updated;
+    private int failed;
+    private List<BulkStatusUpdateResult> results;
+}
@@ -0,0 +1,19 @@
+package com.intern.order.dto;
+
+import com.intern.order.enums.BulkStatusUpdateOutcome;
+import com.intern.order.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResult {
+    private Long orderId;
+    private BulkStatusUpdateOutcome outcome;
+    private OrderStatus previousStatus; // null for NOT_FOUND
+    private String error; // only for NOT_FOUND and REJECTED
+}
@@ -0,0 +1,14 @@
+package com.intern.order.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class OrderPageResponse {
+    private List<OrderResponse> content;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+}
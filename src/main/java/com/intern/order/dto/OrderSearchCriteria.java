@@ -0,0 +1,18 @@
+package com.intern.order.dto;
+
+import com.intern.order.enums.OrderStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for listing and exporting orders. A {@code null} field means "no filter".
+ */
+@Data
+@Builder
+public class OrderSearchCriteria {
+    private OrderStatus status;
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to; // exclusive
+}
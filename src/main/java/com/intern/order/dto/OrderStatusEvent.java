@@ -0,0 +1,16 @@
+package com.intern.order.dto;
+
+import com.intern.order.enums.OrderStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class OrderStatusEvent {
+    private long eventId; // SSE "id": Last-Event-ID sarlavhasida qaytarib yuboriladi
+    private Long orderId;
+    private OrderStatus status;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,14 @@
+package com.intern.order.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SearchIndexStatsResponse {
+    private boolean available; // false: qidiruv bazadan bajariladi
+    private int products;
+    private int terms;
+    private long estimatedBytes;
+    private long memoryBudgetBytes;
+}
@@ -0,0 +1,77 @@
+package com.intern.order.entity;
+
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for a customer's order history: one denormalized row per order, items included,
+ * so the whole history is read with a single index range scan on customer_email and no joins.
+ * Written by OrderService in the same transaction as the order itself.
+ * Product names are a snapshot taken when the order was placed, like the unit price.
+ */
+@Entity
+@Table(name = "customer_order_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerOrderHistory implements Persistable<Long> {
+
+    @Id
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String customerEmail;
+
+    @Column(nullable = false)
+    private String customerName;
+
+    @Column(nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    @Builder.Default
+    private List<OrderItemResponse> orderItems = new ArrayList<>();
+
+    // ID buyurtmadan olinadi, shuning uchun save() yangi qatorni ham merge qilib, avval SELECT qilardi
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -16,8 +16,10 @@ import java.math.BigDecimal;
 @Builder
 public class OrderItem {
 
+    // IDENTITY Hibernate'ning insert batching'ini o'chiradi; pooled sequence ID'larni 50 tadan oldindan oladi
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,32 @@
+package com.intern.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records a batch of reserved-stock deltas that has already been applied to products.stock,
+ * so the same batch is never applied twice (e.g. when it is replayed after a restart).
+ */
+@Entity
+@Table(name = "stock_flush_batches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockFlushBatch {
+
+    @Id
+    @Column(length = 64)
+    private String batchId;
+
+    @Column(nullable = false)
+    private LocalDateTime flushedAt;
+}
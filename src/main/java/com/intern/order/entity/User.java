@@ -10,6 +10,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -34,6 +35,9 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Role role;
 
+    // Bundan oldin berilgan tokenlar bekor qilingan (null - hech qachon bekor qilinmagan)
+    private LocalDateTime tokensValidAfter;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role.name()));
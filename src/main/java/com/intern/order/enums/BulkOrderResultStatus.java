@@ -0,0 +1,6 @@
+package com.intern.order.enums;
+
+public enum BulkOrderResultStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,7 @@
+package com.intern.order.enums;
+
+public enum BulkStatusUpdateOutcome {
+    UPDATED,
+    NOT_FOUND,
+    REJECTED
+}
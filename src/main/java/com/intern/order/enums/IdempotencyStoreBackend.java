@@ -0,0 +1,16 @@
+package com.intern.order.enums;
+
+/**
+ * Where Idempotency-Key values of POST /api/orders are remembered.
+ */
+public enum IdempotencyStoreBackend {
+    /**
+     * Keys are kept in this JVM only. Suitable for a single instance and for tests.
+     */
+    LOCAL,
+
+    /**
+     * Keys are kept in Redis, so a retry is recognized by whichever instance it reaches.
+     */
+    REDIS
+}
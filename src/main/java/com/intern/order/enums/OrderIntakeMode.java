@@ -0,0 +1,16 @@
+package com.intern.order.enums;
+
+/**
+ * How POST /api/orders handles a new order.
+ */
+public enum OrderIntakeMode {
+    /**
+     * Stock is reserved and the order is stored in the request's transaction; the response is final.
+     */
+    SYNC,
+
+    /**
+     * The order is stored as RECEIVED with an outbox entry; a worker pool reserves stock in batches later.
+     */
+    ASYNC
+}
@@ -1,9 +1,28 @@
 package com.intern.order.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Represents the status of an order.
+ * <p>
+ * Allowed transitions:
+ * <pre>
+ * RECEIVED  -> PENDING | REJECTED | CANCELLED   (async intake)
+ * PENDING   -> CONFIRMED | CANCELLED
+ * CONFIRMED -> SHIPPED | CANCELLED
+ * SHIPPED   -> DELIVERED | CANCELLED
+ * DELIVERED, CANCELLED, REJECTED are final.
+ * </pre>
  */
 public enum OrderStatus {
+    /**
+     * Order has been accepted by the asynchronous intake but stock has not been reserved yet.
+     */
+    RECEIVED,
+
     /**
      * Order has been placed but not yet confirmed.
      */
@@ -27,5 +46,39 @@ public enum OrderStatus {
     /**
      * Order has been cancelled.
      */
-    CANCELLED
+    CANCELLED,
+
+    /**
+     * Order was received by the asynchronous intake but could not be fulfilled (e.g. not enough stock).
+     */
+    REJECTED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(RECEIVED, EnumSet.of(PENDING, REJECTED, CANCELLED));
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(SHIPPED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED, CANCELLED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(REJECTED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * @return every status from which an order may move to {@code target}
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        TRANSITIONS.forEach((source, targets) -> {
+            if (targets.contains(target)) {
+                sources.add(source);
+            }
+        });
+        return sources;
+    }
 }
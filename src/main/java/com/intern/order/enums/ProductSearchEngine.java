@@ -0,0 +1,16 @@
+package com.intern.order.enums;
+
+/**
+ * What answers GET /api/products/search.
+ */
+public enum ProductSearchEngine {
+    /**
+     * SQL query against the products table (trigram/full-text indexes on PostgreSQL).
+     */
+    DATABASE,
+
+    /**
+     * In-process inverted index built at startup; falls back to DATABASE while it is not available.
+     */
+    IN_MEMORY
+}
@@ -0,0 +1,16 @@
+package com.intern.order.enums;
+
+/**
+ * Where rate limit buckets are kept.
+ */
+public enum RateLimitBackend {
+    /**
+     * Buckets are kept in this JVM: every instance allows the configured rate on its own.
+     */
+    LOCAL,
+
+    /**
+     * Buckets are kept in Redis and shared, so the configured rate applies across all instances.
+     */
+    REDIS
+}
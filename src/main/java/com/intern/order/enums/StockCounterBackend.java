@@ -0,0 +1,16 @@
+package com.intern.order.enums;
+
+/**
+ * Where stock counters live in {@link StockMode#RESERVATION} mode.
+ */
+public enum StockCounterBackend {
+    /**
+     * Counters are kept in this JVM only. Suitable for a single instance.
+     */
+    LOCAL,
+
+    /**
+     * Counters are kept in Redis and shared by every instance.
+     */
+    REDIS
+}
@@ -0,0 +1,16 @@
+package com.intern.order.enums;
+
+/**
+ * How stock is reserved when an order is placed.
+ */
+public enum StockMode {
+    /**
+     * Every order decrements products.stock directly with a conditional UPDATE.
+     */
+    DIRECT,
+
+    /**
+     * Orders reserve stock from in-memory/Redis counters; net deltas are flushed to products.stock in batches.
+     */
+    RESERVATION
+}
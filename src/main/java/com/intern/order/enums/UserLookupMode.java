@@ -0,0 +1,18 @@
+package com.intern.order.enums;
+
+/**
+ * Where JwtAuthenticationFilter takes a user's authorities from.
+ */
+public enum UserLookupMode {
+    /**
+     * Trust the roles claim of a verified token; no database or cache access per request.
+     * Role changes and revocations apply only once the token expires.
+     */
+    CLAIMS,
+
+    /**
+     * Read the user from the short-lived "users" cache on every request, so role changes apply
+     * within app.jwt.user-cache-ttl and revoked tokens are rejected immediately.
+     */
+    CACHED
+}
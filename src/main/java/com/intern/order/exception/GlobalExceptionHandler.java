@@ -1,8 +1,10 @@
 package com.intern.order.exception;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -31,10 +33,10 @@ public class GlobalExceptionHandler {
 
     /**
      * Handles resource not found errors.
-     * @param ex ProductNotFoundException or OrderNotFoundException
+     * @param ex ProductNotFoundException, OrderNotFoundException or UsernameNotFoundException
      * @return an error message and a 404 Not Found status
      */
-    @ExceptionHandler({ProductNotFoundException.class, OrderNotFoundException.class})
+    @ExceptionHandler({ProductNotFoundException.class, OrderNotFoundException.class, UsernameNotFoundException.class})
     public ResponseEntity<Object> handleResourceNotFoundException(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
@@ -55,12 +57,53 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
     
+    /**
+     * Handles a retry that arrives while the original request with the same Idempotency-Key is still running.
+     * @param ex IdempotencyKeyInProgressException
+     * @return an error message and a 409 Conflict status
+     */
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyInProgressException(IdempotencyKeyInProgressException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.warn("Idempotency key conflict: {}", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles an Idempotency-Key that is reused with a different request body.
+     * @param ex IdempotencyKeyMismatchException
+     * @return an error message and a 422 Unprocessable Entity status
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.error("Idempotency key reused: {}", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles validation errors on request parameters (@Validated controllers).
+     * @param ex the exception
+     * @return the violation messages and a 400 Bad Request status
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage())
+        );
+        log.error("Request parameter validation error: {}", errors);
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles business logic validation errors.
-     * @param ex InvalidOrderStatusException or IllegalStateException
+     * @param ex InvalidOrderStatusException, InvalidCursorException or IllegalStateException
      * @return an error message and a 400 Bad Request status
      */
-    @ExceptionHandler({InvalidOrderStatusException.class, IllegalStateException.class})
+    @ExceptionHandler({InvalidOrderStatusException.class, InvalidCursorException.class, IllegalStateException.class})
     public ResponseEntity<Object> handleInvalidStatusException(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
@@ -0,0 +1,16 @@
+package com.intern.order.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+    /**
+     * High-volume lines (one per order item, one per product) that only need to be seen now and then.
+     * Kept at the rate set by app.logging.sample-rate, see {@link SamplingTurboFilter}.
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogMarkers() {
+    }
+}
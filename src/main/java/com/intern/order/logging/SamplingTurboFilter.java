@@ -0,0 +1,40 @@
+package com.intern.order.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps only a {@code rate} fraction (0..1) of the events carrying {@link LogMarkers#SAMPLED}. Turbo filters run
+ * before the logging event is created, so a dropped line is never formatted or queued.
+ * Events without the marker, and WARN or above, are left to the usual level checks.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private double rate = 0.01;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || !marker.contains(LogMarkers.SAMPLED) || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public void start() {
+        if (rate < 0 || rate > 1) {
+            addError("Sample rate must be between 0 and 1, was " + rate);
+            return;
+        }
+        super.start();
+    }
+}
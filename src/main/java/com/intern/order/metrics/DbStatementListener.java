@@ -0,0 +1,37 @@
+package com.intern.order.metrics;
+
+import org.hibernate.engine.spi.SessionEventListener;
+
+/**
+ * Adds every JDBC statement and batch executed by a Hibernate session to the {@link RequestDbStats} of the
+ * current thread. Registered for every session through hibernate.session.events.auto; Hibernate creates
+ * one instance per session, so the start times need no synchronization.
+ * <p>
+ * Plain JdbcTemplate calls (e.g. in OrderRepositoryCustomImpl) do not go through the session and are not counted.
+ */
+public class DbStatementListener implements SessionEventListener {
+
+    private long statementStartedAt;
+    private long batchStartedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestDbStats.record(1, System.nanoTime() - statementStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        // Batch bitta round-trip: nechta qator bo'lishidan qat'i nazar bitta so'rov sifatida sanaladi
+        RequestDbStats.record(1, System.nanoTime() - batchStartedAt);
+    }
+}
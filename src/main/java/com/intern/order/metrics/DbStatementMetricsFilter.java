@@ -0,0 +1,116 @@
+package com.intern.order.metrics;
+
+import com.intern.order.config.DbBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the database work of each request, tagged like {@code http.server.requests} ({@code method},
+ * {@code uri} pattern, {@code outcome}):
+ * <ul>
+ *     <li>{@code http.server.db.statements} - JDBC statements and batches executed</li>
+ *     <li>{@code http.server.db.time} - time spent executing them</li>
+ *     <li>{@code http.server.db.budget.exceeded} - requests over app.metrics.db-budget, tagged {@code reason}</li>
+ * </ul>
+ * Runs before the security filters, so user lookups during authentication are included. Work done on other
+ * threads (async intake, SSE delivery) is not attributed to the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class DbStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final DbBudgetProperties budget;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !budget.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestDbStats stats = RequestDbStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDbStats.end();
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestDbStats stats) {
+        // URI shabloni handler topilgandan keyin qo'yiladi; topilmasa (404, filtr rad etgan) teglar ko'payib ketmasin
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri, "outcome", outcome(response.getStatus()));
+
+        DistributionSummary.builder("http.server.db.statements")
+                .description("JDBC statements executed per request")
+                .baseUnit("statements")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.db.time")
+                .description("Time spent executing JDBC statements per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        boolean overStatements = stats.getStatements() > budget.getStatements();
+        boolean overTime = stats.getNanos() > budget.getTime().toNanos();
+        if (overStatements) {
+            exceeded(tags, "statements");
+        }
+        if (overTime) {
+            exceeded(tags, "time");
+        }
+        if (overStatements || overTime) {
+            log.warn("{} {} exceeded the DB budget: {} statement(s) in {} ms (budget {} statement(s), {} ms)",
+                    request.getMethod(), uri, stats.getStatements(), TimeUnit.NANOSECONDS.toMillis(stats.getNanos()),
+                    budget.getStatements(), budget.getTime().toMillis());
+        }
+    }
+
+    private void exceeded(Tags tags, String reason) {
+        Counter.builder("http.server.db.budget.exceeded")
+                .description("Requests that ran more DB statements or spent more DB time than app.metrics.db-budget")
+                .tags(tags)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String outcome(int status) {
+        HttpStatus.Series series = HttpStatus.Series.resolve(status);
+        return series == null ? "UNKNOWN" : series.name();
+    }
+}
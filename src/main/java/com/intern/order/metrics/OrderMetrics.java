@@ -0,0 +1,64 @@
+package com.intern.order.metrics;
+
+import com.intern.order.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business meters of order intake:
+ * <ul>
+ *     <li>{@code orders.placed} - orders by {@code outcome}: created, received (async intake), insufficient_stock
+ *     (rejected by checkout) and rejected (rejected later by the intake worker)</li>
+ *     <li>{@code orders.items} - order lines per accepted order, by {@code intake} (sync or async)</li>
+ * </ul>
+ */
+@Component
+public class OrderMetrics {
+
+    private final MeterRegistry registry;
+    private final DistributionSummary syncItems;
+    private final DistributionSummary asyncItems;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.syncItems = itemsSummary("sync");
+        this.asyncItems = itemsSummary("async");
+    }
+
+    public void orderCreated(Order order) {
+        placed("created").increment();
+        syncItems.record(order.getOrderItems().size());
+    }
+
+    public void orderReceived(Order order) {
+        placed("received").increment();
+        asyncItems.record(order.getOrderItems().size());
+    }
+
+    public void insufficientStock() {
+        placed("insufficient_stock").increment();
+    }
+
+    public void ordersRejected(int count) {
+        placed("rejected").increment(count);
+    }
+
+    private Counter placed(String outcome) {
+        // Micrometer bir xil nom va teglar uchun bitta meter qaytaradi, qidiruv ConcurrentHashMap'dan
+        return Counter.builder("orders.placed")
+                .description("Orders placed, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private DistributionSummary itemsSummary(String intake) {
+        return DistributionSummary.builder("orders.items")
+                .description("Order lines per accepted order")
+                .baseUnit("items")
+                .tag("intake", intake)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.intern.order.metrics;
+
+/**
+ * JDBC statements executed by Hibernate on the current thread since {@link #begin()}, and the time spent in them.
+ * Filled by {@link DbStatementListener}; statements run outside a begun scope are not counted.
+ */
+public final class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private RequestDbStats() {
+    }
+
+    public static RequestDbStats begin() {
+        RequestDbStats stats = new RequestDbStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void record(int statements, long nanos) {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements += statements;
+            stats.nanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,25 @@
+package com.intern.order.repository;
+
+import com.intern.order.entity.CustomerOrderHistory;
+import com.intern.order.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerOrderHistoryRepository extends JpaRepository<CustomerOrderHistory, Long> {
+
+    List<CustomerOrderHistory> findByCustomerEmailOrderByOrderDateDescOrderIdDesc(String customerEmail);
+
+    @Modifying
+    @Query("UPDATE CustomerOrderHistory h SET h.status = :status WHERE h.orderId = :orderId")
+    int updateStatus(Long orderId, OrderStatus status);
+
+    @Modifying
+    @Query("UPDATE CustomerOrderHistory h SET h.status = :status WHERE h.orderId IN :orderIds")
+    int updateStatuses(Collection<Long> orderIds, OrderStatus status);
+}
@@ -2,8 +2,25 @@ package com.intern.order.repository;
 
 import com.intern.order.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Total ordered quantity per product over all the given orders, without loading items or products.
+     */
+    @Query("SELECT i.product.id AS productId, SUM(i.quantity) AS quantity FROM OrderItem i"
+            + " WHERE i.order.id IN :orderIds GROUP BY i.product.id")
+    List<ProductQuantity> sumQuantitiesByProduct(Collection<Long> orderIds);
+
+    interface ProductQuantity {
+        Long getProductId();
+
+        Long getQuantity();
+    }
+}
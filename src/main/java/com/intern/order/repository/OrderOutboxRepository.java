@@ -0,0 +1,35 @@
+package com.intern.order.repository;
+
+import com.intern.order.entity.OrderOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntry, Long> {
+
+    /**
+     * Claims the oldest entries for the current transaction. Entries already claimed by another
+     * worker are skipped instead of waited for (FOR UPDATE SKIP LOCKED where the database supports it).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = LockOptions.SKIP_LOCKED
+    List<OrderOutboxEntry> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Takes the orders away from the intake worker. Entries a worker is processing right now are waited
+     * for; by then they are gone and the order has left RECEIVED.
+     */
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEntry e WHERE e.orderId IN :orderIds")
+    int deleteByOrderIdIn(Collection<Long> orderIds);
+}
@@ -1,12 +1,69 @@
 package com.intern.order.repository;
 
 import com.intern.order.entity.Order;
+import com.intern.order.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    @Override
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
+    List<Order> findAll();
+
+    @Override
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
+    Optional<Order> findById(Long id);
+
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
     List<Order> findByCustomerEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Loads the orders with their items (not the products) in one SELECT.
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Reads the current status straight from the table, bypassing the entity in the persistence context.
+     */
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    OrderStatus findStatusById(Long id);
+
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<StatusView> findStatuses(Collection<Long> ids);
+
+    /**
+     * Locks the orders (SELECT ... FOR UPDATE) in ascending ID order, so concurrent callers with
+     * overlapping ID sets queue up instead of deadlocking. Items are not loaded.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllForUpdate(Collection<Long> ids);
+
+    /**
+     * Moves every listed order whose current status is one of {@code sources} to {@code target}
+     * with a single UPDATE. Orders in any other status are left alone.
+     * Clears the persistence context, so orders loaded before do not keep their old status.
+     * @return number of orders updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target WHERE o.id IN :ids AND o.status IN :sources")
+    int updateStatuses(Collection<Long> ids, Collection<OrderStatus> sources, OrderStatus target);
+
+    interface StatusView {
+        Long getId();
+
+        OrderStatus getStatus();
+    }
+}
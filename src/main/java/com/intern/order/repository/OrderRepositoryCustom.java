@@ -0,0 +1,28 @@
+package com.intern.order.repository;
+
+import com.intern.order.dto.OrderCursor;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.OrderSearchCriteria;
+import com.intern.order.entity.Order;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Keyset pagination over (order_date DESC, id DESC): the query seeks straight to the cursor
+     * instead of skipping OFFSET rows, so every page costs the same no matter how deep it is.
+     * Items and their products are loaded with one extra query for the whole page.
+     * @param cursor last order of the previous page, or {@code null} for the first page
+     * @param limit maximum number of orders to return
+     */
+    List<Order> findPage(OrderSearchCriteria criteria, OrderCursor cursor, int limit);
+
+    /**
+     * Reads every matching order together with its items from a JDBC cursor and hands them over one
+     * by one, in the same order as {@link #findPage}. Nothing is kept in the persistence context, so
+     * memory use does not depend on the number of rows. Must be called inside a transaction.
+     */
+    void streamOrders(OrderSearchCriteria criteria, Consumer<OrderResponse> consumer);
+}
@@ -0,0 +1,160 @@
+package com.intern.order.repository;
+
+import com.intern.order.dto.OrderCursor;
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.OrderSearchCriteria;
+import com.intern.order.entity.Order;
+import com.intern.order.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // Postgres faqat fetchSize > 0 bo'lsa va tranzaksiya ichida natijani qismlab (cursor orqali) o'qiydi
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.customer_name, o.customer_email, o.order_date, o.status, o.total_amount,
+                   i.product_id, p.name AS product_name, i.quantity, i.unit_price, i.total_price
+            FROM orders o
+                     LEFT JOIN order_items i ON i.order_id = o.id
+                     LEFT JOIN products p ON p.id = i.product_id
+            WHERE 1 = 1""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate exportJdbcTemplate;
+
+    public OrderRepositoryCustomImpl(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public List<Order> findPage(OrderSearchCriteria criteria, OrderCursor cursor, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT o FROM Order o WHERE 1 = 1");
+        appendFilters(jpql, parameters, criteria, cursor, "o.status", "o.orderDate", "o.id");
+        jpql.append(" ORDER BY o.orderDate DESC, o.id DESC");
+
+        TypedQuery<Order> query = entityManager.createQuery(jpql.toString(), Order.class);
+        parameters.forEach(query::setParameter);
+        List<Order> orders = query.setMaxResults(limit).getResultList();
+
+        // LIMIT bilan kolleksiyani JOIN FETCH qilib bo'lmaydi (Hibernate sahifani xotirada kesadi),
+        // shuning uchun sahifadagi buyurtmalarning elementlari ikkinchi so'rov bilan yuklanadi
+        if (!orders.isEmpty()) {
+            entityManager.createQuery("SELECT DISTINCT o FROM Order o"
+                            + " LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product"
+                            + " WHERE o.id IN :ids", Order.class)
+                    .setParameter("ids", orders.stream().map(Order::getId).toList())
+                    .getResultList();
+        }
+        return orders;
+    }
+
+    @Override
+    public void streamOrders(OrderSearchCriteria criteria, Consumer<OrderResponse> consumer) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        appendFilters(sql, parameters, criteria, null, "o.status", "o.order_date", "o.id");
+        sql.append(" ORDER BY o.order_date DESC, o.id DESC, i.id");
+
+        // Statuslar bazada matn sifatida saqlanadi
+        parameters.computeIfPresent("status", (name, status) -> ((OrderStatus) status).name());
+
+        OrderAssembler assembler = new OrderAssembler(consumer);
+        exportJdbcTemplate.query(sql.toString(), new MapSqlParameterSource(parameters), assembler::accept);
+        assembler.finish();
+    }
+
+    /**
+     * Appends the filter predicates. The cursor predicate is written out as an OR rather than a row
+     * value comparison so that it works on every database, and it still uses the (order_date, id) index.
+     */
+    private static void appendFilters(StringBuilder query, Map<String, Object> parameters,
+                                      OrderSearchCriteria criteria, OrderCursor cursor,
+                                      String status, String orderDate, String id) {
+        if (criteria.getStatus() != null) {
+            query.append(" AND ").append(status).append(" = :status");
+            parameters.put("status", criteria.getStatus());
+        }
+        if (criteria.getFrom() != null) {
+            query.append(" AND ").append(orderDate).append(" >= :from");
+            parameters.put("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            query.append(" AND ").append(orderDate).append(" < :to");
+            parameters.put("to", criteria.getTo());
+        }
+        if (cursor != null) {
+            query.append(" AND (").append(orderDate).append(" < :cursorDate OR (")
+                    .append(orderDate).append(" = :cursorDate AND ").append(id).append(" < :cursorId))");
+            parameters.put("cursorDate", cursor.orderDate());
+            parameters.put("cursorId", cursor.id());
+        }
+    }
+
+    /**
+     * Joined rows of one order arrive next to each other, so only the order being read is held in memory.
+     */
+    private static final class OrderAssembler {
+
+        private final Consumer<OrderResponse> consumer;
+        private OrderResponse current;
+
+        private OrderAssembler(Consumer<OrderResponse> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.getId() != orderId) {
+                finish();
+                current = OrderResponse.builder()
+                        .id(orderId)
+                        .customerName(rs.getString("customer_name"))
+                        .customerEmail(rs.getString("customer_email"))
+                        .orderDate(rs.getTimestamp("order_date").toLocalDateTime())
+                        .status(OrderStatus.valueOf(rs.getString("status")))
+                        .totalAmount(rs.getBigDecimal("total_amount"))
+                        .orderItems(new ArrayList<>())
+                        .build();
+            }
+
+            long productId = rs.getLong("product_id");
+            if (!rs.wasNull()) {
+                current.getOrderItems().add(OrderItemResponse.builder()
+                        .productId(productId)
+                        .productName(rs.getString("product_name"))
+                        .quantity(rs.getInt("quantity"))
+                        .unitPrice(rs.getBigDecimal("unit_price"))
+                        .totalPrice(rs.getBigDecimal("total_price"))
+                        .build());
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -1,12 +1,40 @@
 package com.intern.order.repository;
 
 import com.intern.order.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByNameContainingIgnoreCaseAndCategoryContainingIgnoreCase(String name, String category);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    /**
+     * Keyset page in ID order, used to rebuild the in-memory search index without OFFSET scans.
+     */
+    List<Product> findByIdGreaterThanOrderById(Long afterId, Limit limit);
+
+    /**
+     * Reads the current stock straight from the table, bypassing entities already in the persistence context.
+     */
+    @Query("SELECT p.id AS id, p.stock AS stock FROM Product p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevels(Collection<Long> ids);
+
+    /**
+     * Locks the products (SELECT ... FOR UPDATE) in ascending ID order. Entities already in the persistence
+     * context are not refreshed, so read the stock with {@link #findStockLevels} afterwards.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllForUpdate(Collection<Long> ids);
+
+    interface StockLevel {
+        Long getId();
+
+        Integer getStock();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.intern.order.repository;
+
+import com.intern.order.entity.Product;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically decrements the stock of several products with a single UPDATE statement.
+     * A row is only updated if its current stock is at least the requested quantity.
+     * @param quantitiesByProductId quantity to subtract, keyed by product ID
+     * @return the number of product rows that were updated; less than the map size means
+     * at least one product did not have enough stock
+     */
+    int decrementStock(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Adds to the stock of several products with a single UPDATE statement, without any checks.
+     * Negative values subtract.
+     * @param deltasByProductId amount to add, keyed by product ID
+     * @return the number of product rows that were updated
+     */
+    int addStock(Map<Long, Integer> deltasByProductId);
+
+    /**
+     * Finds products whose name and category contain the given parts (case-insensitive), best matches first.
+     * On PostgreSQL the name also matches by whole words, and the query is served by the trigram and
+     * full-text indexes from V6__Product_Search_Indexes.sql.
+     * @param name part of the name, ignored if blank
+     * @param category part of the category, ignored if blank
+     */
+    List<Product> search(String name, String category, int offset, int limit);
+}
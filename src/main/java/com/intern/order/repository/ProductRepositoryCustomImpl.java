@@ -0,0 +1,159 @@
+package com.intern.order.repository;
+
+import com.intern.order.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Filtrlar V6 dagi trigram (ILIKE) va to_tsvector indekslariga mos bo'lishi kerak, aks holda to'liq skan bo'ladi
+    private static final String POSTGRES_SEARCH_SQL = "SELECT p.* FROM products p WHERE 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Builds one "UPDATE ... SET stock = stock - CASE id WHEN ... END WHERE id IN (...) AND stock >= CASE ..."
+     * statement, so a whole cart costs a single round trip. The stock check happens inside the UPDATE
+     * under the row lock, which makes it safe against concurrent checkouts without a version column
+     * or SELECT ... FOR UPDATE. IDs are bound in ascending order to keep the row lock order the same
+     * for every caller.
+     * Note: product entities already loaded into the persistence context are not refreshed.
+     */
+    @Override
+    public int decrementStock(Map<Long, Integer> quantitiesByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+
+        String quantityCase = quantityCase(ordered.size());
+        String jpql = "UPDATE " + Product.class.getSimpleName() + " p"
+                + " SET p.stock = p.stock - " + quantityCase
+                + " WHERE p.id IN :ids AND p.stock >= " + quantityCase;
+
+        return execute(jpql, ordered);
+    }
+
+    @Override
+    public int addStock(Map<Long, Integer> deltasByProductId) {
+        if (deltasByProductId.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> ordered = new TreeMap<>(deltasByProductId);
+
+        String jpql = "UPDATE " + Product.class.getSimpleName() + " p"
+                + " SET p.stock = p.stock + " + quantityCase(ordered.size())
+                + " WHERE p.id IN :ids";
+
+        return execute(jpql, ordered);
+    }
+
+    @Override
+    public List<Product> search(String name, String category, int offset, int limit) {
+        return isPostgres()
+                ? searchPostgres(name, category, offset, limit)
+                : searchPortable(name, category, offset, limit);
+    }
+
+    /**
+     * Whole-word matches (ts_rank) come first, then names starting with the term, then the rest.
+     * The id tie-breaker keeps the order stable between pages.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Product> searchPostgres(String name, String category, int offset, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder sql = new StringBuilder(POSTGRES_SEARCH_SQL);
+        String orderBy = " ORDER BY p.id";
+
+        if (StringUtils.hasText(name)) {
+            sql.append(" AND (p.name ILIKE :namePattern ESCAPE '\\'"
+                    + " OR to_tsvector('simple', p.name) @@ plainto_tsquery('simple', :name))");
+            orderBy = " ORDER BY ts_rank(to_tsvector('simple', p.name), plainto_tsquery('simple', :name)) DESC,"
+                    + " (p.name ILIKE :namePrefix ESCAPE '\\') DESC, p.id";
+            parameters.put("name", name);
+            parameters.put("namePattern", "%" + escapeLike(name) + "%");
+            parameters.put("namePrefix", escapeLike(name) + "%");
+        }
+        if (StringUtils.hasText(category)) {
+            sql.append(" AND p.category ILIKE :categoryPattern ESCAPE '\\'");
+            parameters.put("categoryPattern", "%" + escapeLike(category) + "%");
+        }
+        sql.append(orderBy).append(" LIMIT :limit OFFSET :offset");
+        parameters.put("limit", limit);
+        parameters.put("offset", offset);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Product.class);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    /**
+     * Fallback for other databases (H2 in tests): substring match only, ranked exact > prefix > contains.
+     */
+    private List<Product> searchPortable(String name, String category, int offset, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Product p WHERE 1 = 1");
+        String orderBy = " ORDER BY p.id";
+
+        if (StringUtils.hasText(name)) {
+            String term = name.toLowerCase(Locale.ROOT);
+            jpql.append(" AND LOWER(p.name) LIKE :namePattern ESCAPE '\\'");
+            orderBy = " ORDER BY CASE WHEN LOWER(p.name) = :name THEN 0"
+                    + " WHEN LOWER(p.name) LIKE :namePrefix ESCAPE '\\' THEN 1 ELSE 2 END, p.id";
+            parameters.put("name", term);
+            parameters.put("namePattern", "%" + escapeLike(term) + "%");
+            parameters.put("namePrefix", escapeLike(term) + "%");
+        }
+        if (StringUtils.hasText(category)) {
+            jpql.append(" AND LOWER(p.category) LIKE :categoryPattern ESCAPE '\\'");
+            parameters.put("categoryPattern", "%" + escapeLike(category.toLowerCase(Locale.ROOT)) + "%");
+        }
+        jpql.append(orderBy);
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class);
+        parameters.forEach(query::setParameter);
+        return query.setFirstResult(offset).setMaxResults(limit).getResultList();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // Foydalanuvchi kiritgan % va _ belgilar wildcard bo'lib qolmasligi uchun
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private int execute(String jpql, Map<Long, Integer> ordered) {
+        Query query = entityManager.createQuery(jpql);
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : ordered.entrySet()) {
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("qty" + i, entry.getValue());
+            i++;
+        }
+        query.setParameter("ids", ordered.keySet());
+        return query.executeUpdate();
+    }
+
+    private String quantityCase(int size) {
+        StringBuilder jpql = new StringBuilder("CASE p.id");
+        for (int i = 0; i < size; i++) {
+            jpql.append(" WHEN :id").append(i).append(" THEN :qty").append(i);
+        }
+        return jpql.append(" END").toString();
+    }
+}
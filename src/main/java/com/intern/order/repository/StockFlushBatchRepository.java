@@ -0,0 +1,17 @@
+package com.intern.order.repository;
+
+import com.intern.order.entity.StockFlushBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StockFlushBatchRepository extends JpaRepository<StockFlushBatch, String> {
+
+    @Modifying
+    @Query("DELETE FROM StockFlushBatch b WHERE b.flushedAt < :threshold")
+    int deleteFlushedBefore(LocalDateTime threshold);
+}
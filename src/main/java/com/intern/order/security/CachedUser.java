@@ -0,0 +1,29 @@
+package com.intern.order.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+
+/**
+ * What the "users" cache keeps per username for {@link com.intern.order.enums.UserLookupMode#CACHED}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedUser {
+    private String username;
+    private ArrayList<String> authorities; // Redis JSON (default typing) uchun aniq, o'zgaruvchan tur
+    private Instant tokensValidAfter;
+
+    /**
+     * A token is accepted only if it was issued strictly after the last revocation. iat has second precision,
+     * so a token issued in the same second as the revocation is rejected as well.
+     */
+    public boolean accepts(VerifiedToken token) {
+        return tokensValidAfter == null
+                || (token.issuedAt() != null && token.issuedAt().isAfter(tokensValidAfter));
+    }
+}
@@ -1,5 +1,10 @@
 package com.intern.order.security;
 
+import com.intern.order.config.JwtProperties;
+import com.intern.order.enums.UserLookupMode;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,20 +12,31 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates requests from the bearer token alone. In {@link UserLookupMode#CLAIMS} mode the roles claim
+ * is trusted and no user is loaded; in {@link UserLookupMode#CACHED} mode (and for older tokens without the
+ * claim) the user comes from {@link UserAuthorityLookup}. The principal is the username.
+ * <p>
+ * Verification time is recorded as {@code jwt.verification}, tagged {@code outcome} valid, expired or invalid.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserAuthorityLookup userAuthorityLookup;
+    private final JwtProperties jwtProperties;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -30,7 +46,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final VerifiedToken token;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -38,15 +54,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtUtil.extractUsername(jwt);
+        token = verify(jwt);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+        if (token.username() != null && !token.isExpired() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            List<GrantedAuthority> authorities = resolveAuthorities(token);
+            if (authorities != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        token.username(),
                         null,
-                        userDetails.getAuthorities()
+                        authorities
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -54,4 +70,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streaming responses (SSE, NDJSON export) finish in an ASYNC dispatch that goes through the security
+     * filters again with an empty SecurityContext, so the token has to be read again there as well.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private VerifiedToken verify(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            VerifiedToken verified = jwtUtil.verify(jwt); // Imzo faqat bir marta tekshiriladi (yoki keshdan olinadi)
+            outcome = "valid";
+            return verified;
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("jwt.verification")
+                    .description("Bearer token verification, including verified-token cache lookups")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return the authorities to grant, or {@code null} if the request must stay unauthenticated
+     */
+    private List<GrantedAuthority> resolveAuthorities(VerifiedToken token) {
+        List<String> authorities = token.authorities();
+        if (jwtProperties.getUserLookup() == UserLookupMode.CACHED || authorities == null) {
+            CachedUser user = userAuthorityLookup.find(token.username());
+            if (user == null || !user.accepts(token)) {
+                return null; // Foydalanuvchi o'chirilgan yoki token bekor qilingan
+            }
+            authorities = user.getAuthorities();
+        }
+        return authorities.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+    }
+}
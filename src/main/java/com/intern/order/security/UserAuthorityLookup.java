@@ -0,0 +1,37 @@
+package com.intern.order.security;
+
+import com.intern.order.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+
+/**
+ * Cached user reads for JwtAuthenticationFilter. Entries are evicted by AuthService.revokeTokens; with the
+ * two-level cache the eviction reaches every instance through Redis pub/sub.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAuthorityLookup {
+
+    private final UserRepository userRepository;
+
+    /**
+     * @return the user's authorities and revocation time, or {@code null} if the user no longer exists
+     */
+    @Cacheable(value = "users", key = "#username", unless = "#result == null")
+    public CachedUser find(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new CachedUser(
+                        user.getUsername(),
+                        user.getAuthorities().stream()
+                                .map(GrantedAuthority::getAuthority)
+                                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll),
+                        user.getTokensValidAfter() == null ? null
+                                : user.getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant()))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.intern.order.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The parts of a signature-checked JWT that authentication needs.
+ * @param authorities the roles claim, or {@code null} for tokens issued before it existed
+ * @param issuedAt {@code null} if the token has no iat claim
+ */
+public record VerifiedToken(String username, List<String> authorities, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,56 @@
+package com.intern.order.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.intern.order.config.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Buckets in a bounded Caffeine cache. Each bucket is a single {@link AtomicLong} updated with a CAS loop
+ * (the generic cell rate algorithm, which admits exactly what a token bucket of the same capacity and refill
+ * rate does), so concurrent requests of one client never block each other.
+ * <p>
+ * A bucket left alone for longer than the longest refill is full again, so dropping it loses nothing;
+ * {@code maximumSize} only caps memory under a flood of distinct clients.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public LocalRateLimiter(long maximumSize, Duration idleTimeout) {
+        this(maximumSize, idleTimeout, System::nanoTime);
+    }
+
+    LocalRateLimiter(long maximumSize, Duration idleTimeout, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(RateLimitProperties.Rule rule, String clientKey) {
+        long interval = rule.getRefillInterval().toNanos();
+        long burst = interval * (rule.getCapacity() - 1);
+        long now = nanoClock.getAsLong();
+        // Bucketda qachon yana bitta token bo'shashi ("theoretical arrival time"); yangi bucket to'la
+        AtomicLong arrival = buckets.get(rule.getName() + ":" + clientKey, key -> new AtomicLong(now - interval));
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now);
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return Math.max(1, Duration.ofNanos(wait).toMillis());
+            }
+            if (arrival.compareAndSet(current, next + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.intern.order.security.ratelimit;
+
+import com.intern.order.config.RateLimitProperties;
+
+/**
+ * Token buckets, one per rule and client.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the client's bucket for the rule.
+     * @return 0 if the request may proceed, otherwise how many milliseconds until a token is available
+     */
+    long tryAcquire(RateLimitProperties.Rule rule, String clientKey);
+}
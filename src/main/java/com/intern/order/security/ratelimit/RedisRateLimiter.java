@@ -0,0 +1,59 @@
+package com.intern.order.security.ratelimit;
+
+import com.intern.order.config.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Buckets shared by every instance: the same algorithm as {@link LocalRateLimiter} in one Lua script,
+ * timed by the Redis clock so instances with skewed clocks still agree. A bucket key expires once the
+ * bucket is full again.
+ * <p>
+ * If Redis cannot be reached, requests are let through: losing the limit is better than losing the API.
+ */
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // KEYS[1] = bucket; ARGV[1] = refill interval in ms, ARGV[2] = capacity. 0 = allowed, otherwise ms to wait
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local interval = tonumber(ARGV[1])
+            local burst = interval * (tonumber(ARGV[2]) - 1)
+            local arrival = tonumber(redis.call('GET', KEYS[1]) or now)
+            if arrival < now then
+                arrival = now
+            end
+            local wait = arrival - now - burst
+            if wait > 0 then
+                return wait
+            end
+            redis.call('SET', KEYS[1], string.format('%d', arrival + interval), 'PX', string.format('%d', arrival + interval - now))
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long tryAcquire(RateLimitProperties.Rule rule, String clientKey) {
+        try {
+            Long wait = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + rule.getName() + ":" + clientKey),
+                    String.valueOf(Math.max(1, rule.getRefillInterval().toMillis())), String.valueOf(rule.getCapacity()));
+            return wait == null ? 0 : wait;
+        } catch (DataAccessException e) {
+            log.warn("Rate limit check failed, letting the request through: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
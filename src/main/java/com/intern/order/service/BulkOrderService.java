@@ -0,0 +1,174 @@
+package com.intern.order.service;
+
+import com.intern.order.dto.BulkOrderResponse;
+import com.intern.order.dto.BulkOrderResult;
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderItemRequest;
+import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderItem;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.BulkOrderResultStatus;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.repository.OrderRepository;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.stock.StockAllocator;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports many orders in one transaction. Unlike {@link OrderService#createOrder}, an order that fails
+ * validation is reported in the results instead of failing the whole request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed("service.method")
+public class BulkOrderService {
+
+    // Shuncha buyurtmadan keyin persistence context tozalanadi, xotira so'rov hajmiga bog'liq bo'lmasligi uchun
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final StockAllocator stockAllocator;
+    private final CustomerOrderHistoryProjector historyProjector;
+    private final EntityManager entityManager;
+
+    /**
+     * Stock for every accepted order is reserved with a single {@link StockAllocator#reserve} call.
+     * Orders are checked against the stock read at the start, in request order. If a concurrent checkout
+     * takes the stock in the meantime, reserve throws InsufficientStockException and the whole batch is
+     * rolled back, so it can simply be retried.
+     */
+    @Transactional
+    public BulkOrderResponse createOrders(List<CreateOrderRequest> requests) {
+        log.info("Importing a batch of {} order(s)", requests.size());
+
+        Map<Long, Product> productsById = loadProducts(requests);
+        Map<Long, Integer> remainingStock = new HashMap<>();
+        productsById.values().forEach(product -> remainingStock.put(product.getId(), product.getStock()));
+
+        List<BulkOrderResult> results = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        Map<Long, Integer> totalQuantities = new HashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i).getOrderItems(), productsById, remainingStock);
+            if (error != null) {
+                results.add(BulkOrderResult.builder().index(i).status(BulkOrderResultStatus.REJECTED).error(error).build());
+                continue;
+            }
+            for (OrderItemRequest item : requests.get(i).getOrderItems()) {
+                remainingStock.merge(item.getProductId(), -item.getQuantity(), Integer::sum);
+                totalQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            results.add(BulkOrderResult.builder().index(i).status(BulkOrderResultStatus.CREATED).build());
+            acceptedIndexes.add(i);
+        }
+
+        if (!totalQuantities.isEmpty()) {
+            stockAllocator.reserve(totalQuantities);
+        }
+
+        for (int from = 0; from < acceptedIndexes.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Integer> chunk = acceptedIndexes.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, acceptedIndexes.size()));
+            List<Order> orders = chunk.stream()
+                    .map(i -> buildOrder(requests.get(i), productsById))
+                    .collect(Collectors.toList());
+
+            // Buyurtmalar read model'dan oldin bazaga tushishi kerak (customer_order_history FK)
+            orderRepository.saveAll(orders);
+            orderRepository.flush();
+            historyProjector.ordersPlaced(orders);
+            entityManager.flush();
+            entityManager.clear();
+
+            for (int j = 0; j < chunk.size(); j++) {
+                results.get(chunk.get(j)).setOrderId(orders.get(j).getId());
+            }
+        }
+
+        int created = acceptedIndexes.size();
+        log.info("Imported {} order(s), rejected {}", created, requests.size() - created);
+        return BulkOrderResponse.builder()
+                .created(created)
+                .rejected(requests.size() - created)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Loads every product referenced anywhere in the batch with a single IN query.
+     */
+    private Map<Long, Product> loadProducts(List<CreateOrderRequest> requests) {
+        Set<Long> productIds = requests.stream()
+                .flatMap(request -> request.getOrderItems().stream())
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * @return why the order cannot be created, or {@code null} if it can
+     */
+    private String validate(List<OrderItemRequest> items, Map<Long, Product> productsById, Map<Long, Integer> remainingStock) {
+        Set<Long> seen = new HashSet<>();
+        for (OrderItemRequest item : items) {
+            if (!seen.add(item.getProductId())) {
+                return "Duplicate product found in order: productId " + item.getProductId();
+            }
+            if (!productsById.containsKey(item.getProductId())) {
+                return "Product not found with id: " + item.getProductId();
+            }
+            int available = remainingStock.get(item.getProductId());
+            if (available < item.getQuantity()) {
+                return "Not enough stock for product: " + productsById.get(item.getProductId()).getName() +
+                        ". Available: " + available + ", Requested: " + item.getQuantity();
+            }
+        }
+        return null;
+    }
+
+    private Order buildOrder(CreateOrderRequest request, Map<Long, Product> productsById) {
+        Order order = Order.builder()
+                .customerName(request.getCustomerName())
+                .customerEmail(request.getCustomerEmail())
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .build();
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItemRequest itemRequest : request.getOrderItems()) {
+            Product product = productsById.get(itemRequest.getProductId());
+            BigDecimal totalPrice = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            totalAmount = totalAmount.add(totalPrice);
+
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(product)
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(product.getPrice())
+                    .totalPrice(totalPrice)
+                    .build());
+        }
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+}
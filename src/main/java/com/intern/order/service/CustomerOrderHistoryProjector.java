@@ -0,0 +1,76 @@
+package com.intern.order.service;
+
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.entity.CustomerOrderHistory;
+import com.intern.order.entity.Order;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.repository.CustomerOrderHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the customer_order_history read model in step with the orders table.
+ * Must be called inside the transaction that changes the order.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerOrderHistoryProjector {
+
+    private final CustomerOrderHistoryRepository historyRepository;
+
+    public void orderPlaced(Order order) {
+        historyRepository.save(toHistory(order));
+    }
+
+    public void ordersPlaced(List<Order> orders) {
+        historyRepository.saveAll(orders.stream().map(this::toHistory).collect(Collectors.toList()));
+    }
+
+    public void statusChanged(Order order) {
+        historyRepository.updateStatus(order.getId(), order.getStatus());
+    }
+
+    public void statusesChanged(List<Long> orderIds, OrderStatus status) {
+        historyRepository.updateStatuses(orderIds, status);
+    }
+
+    public List<OrderResponse> findHistory(String customerEmail) {
+        return historyRepository.findByCustomerEmailOrderByOrderDateDescOrderIdDesc(customerEmail).stream()
+                .map(history -> OrderResponse.builder()
+                        .id(history.getOrderId())
+                        .customerName(history.getCustomerName())
+                        .customerEmail(history.getCustomerEmail())
+                        .orderDate(history.getOrderDate())
+                        .status(history.getStatus())
+                        .totalAmount(history.getTotalAmount())
+                        .orderItems(history.getOrderItems())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private CustomerOrderHistory toHistory(Order order) {
+        List<OrderItemResponse> items = order.getOrderItems().stream()
+                .map(item -> OrderItemResponse.builder()
+                        .productId(item.getProduct().getId())
+                        .productName(item.getProduct().getName())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .totalPrice(item.getTotalPrice())
+                        .build())
+                .collect(Collectors.toList());
+
+        return CustomerOrderHistory.builder()
+                .orderId(order.getId())
+                .customerEmail(order.getCustomerEmail())
+                .customerName(order.getCustomerName())
+                .orderDate(order.getOrderDate())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .orderItems(items)
+                .build();
+    }
+}
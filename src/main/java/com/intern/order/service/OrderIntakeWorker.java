@@ -0,0 +1,169 @@
+package com.intern.order.service;
+
+import com.intern.order.config.OrderIntakeProperties;
+import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderOutboxEntry;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.metrics.OrderMetrics;
+import com.intern.order.repository.OrderOutboxRepository;
+import com.intern.order.repository.OrderRepository;
+import com.intern.order.service.events.OrderStatusChanged;
+import com.intern.order.service.stock.StockAllocator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Second half of the asynchronous intake (app.orders.intake.mode=async): moves RECEIVED orders to
+ * PENDING once their stock is reserved, or to REJECTED if there is not enough.
+ * <p>
+ * Every poll, app.orders.intake.workers threads each claim up to app.orders.intake.batch-size outbox
+ * entries with SKIP LOCKED, so they never wait for each other, and keep going until the outbox is empty.
+ * A batch is processed in one transaction: stock for the whole batch is reserved with a single
+ * {@link StockAllocator#tryReserve} call, and only if that fails is it retried order by order to find the
+ * orders that cannot be fulfilled. A failed attempt changes nothing, so no savepoints are needed.
+ * Outbox entries are deleted in the same transaction.
+ */
+@Slf4j
+public class OrderIntakeWorker {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final StockAllocator stockAllocator;
+    private final CustomerOrderHistoryProjector historyProjector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderIntakeProperties properties;
+    private final ExecutorService workers;
+
+    public OrderIntakeWorker(OrderOutboxRepository outboxRepository,
+                             OrderRepository orderRepository,
+                             StockAllocator stockAllocator,
+                             CustomerOrderHistoryProjector historyProjector,
+                             ApplicationEventPublisher eventPublisher,
+                             OrderMetrics orderMetrics,
+                             TransactionTemplate transactionTemplate,
+                             OrderIntakeProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.orderRepository = orderRepository;
+        this.stockAllocator = stockAllocator;
+        this.historyProjector = historyProjector;
+        this.eventPublisher = eventPublisher;
+        this.orderMetrics = orderMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("order-intake-"));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.intake.poll-interval:200ms}")
+    public void poll() {
+        List<Future<?>> running = new ArrayList<>(properties.getWorkers());
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            running.add(workers.submit(this::drain));
+        }
+        // Keyingi poll barcha worker'lar tugagandan keyin boshlanadi, aks holda vazifalar navbatda to'planadi
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Order intake worker failed, the batch will be retried", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void drain() {
+        while (processBatch(properties.getBatchSize()) == properties.getBatchSize()) {
+            // To'liq partiya keldi: outbox'da yana yozuvlar bo'lishi mumkin
+        }
+    }
+
+    /**
+     * Confirms or rejects up to {@code limit} received orders in one transaction.
+     * @return number of outbox entries processed; fewer than limit means the outbox is drained
+     */
+    int processBatch(int limit) {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<OrderOutboxEntry> entries = outboxRepository.findAllByOrderByIdAsc(Limit.of(limit));
+            if (entries.isEmpty()) {
+                return 0;
+            }
+
+            // Navbatdagi paytda bekor qilingan buyurtmalarning yozuvi ham shu yerda o'chiriladi
+            List<Order> orders = new ArrayList<>(orderRepository.findByIdIn(
+                    entries.stream().map(OrderOutboxEntry::getOrderId).toList()));
+            orders.removeIf(order -> order.getStatus() != OrderStatus.RECEIVED);
+            orders.sort(Comparator.comparing(Order::getId));
+
+            List<Order> rejected = reserveStock(orders);
+            orders.removeAll(rejected);
+            for (Order order : orders) {
+                order.setStatus(OrderStatus.PENDING);
+                historyProjector.statusChanged(order);
+                eventPublisher.publishEvent(new OrderStatusChanged(order.getId(), OrderStatus.PENDING));
+            }
+            for (Order order : rejected) {
+                order.setStatus(OrderStatus.REJECTED);
+                historyProjector.statusChanged(order);
+                eventPublisher.publishEvent(new OrderStatusChanged(order.getId(), OrderStatus.REJECTED));
+            }
+            outboxRepository.deleteAllInBatch(entries);
+
+            if (!rejected.isEmpty()) {
+                orderMetrics.ordersRejected(rejected.size());
+                log.info("Order intake: confirmed {} order(s), rejected {} for lack of stock", orders.size(), rejected.size());
+            }
+            return entries.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    /**
+     * @return the orders whose stock could not be reserved
+     */
+    private List<Order> reserveStock(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> totalQuantities = new HashMap<>();
+        for (Order order : orders) {
+            OrderService.quantitiesByProductId(order).forEach((productId, quantity) ->
+                    totalQuantities.merge(productId, quantity, Integer::sum));
+        }
+        if (stockAllocator.tryReserve(totalQuantities)) {
+            return List.of();
+        }
+
+        // Butun partiyaga zaxira yetmadi: buyurtma tartibida bittadan band qilamiz, shunda faqat yetmaganlari rad etiladi
+        List<Order> rejected = new ArrayList<>();
+        for (Order order : orders) {
+            if (!stockAllocator.tryReserve(OrderService.quantitiesByProductId(order))) {
+                log.debug("Not enough stock for received order ID: {}", order.getId());
+                rejected.add(order);
+            }
+        }
+        return rejected;
+    }
+}
@@ -1,85 +1,106 @@
 package com.intern.order.service;
 
+import com.intern.order.dto.BulkStatusUpdateResponse;
+import com.intern.order.dto.BulkStatusUpdateResult;
 import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderCursor;
 import com.intern.order.dto.OrderItemRequest;
 import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderPageResponse;
 import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.OrderSearchCriteria;
 import com.intern.order.entity.Order;
 import com.intern.order.entity.OrderItem;
+import com.intern.order.entity.OrderOutboxEntry;
 import com.intern.order.entity.Product;
+import com.intern.order.enums.BulkStatusUpdateOutcome;
 import com.intern.order.enums.OrderStatus;
 import com.intern.order.exception.InsufficientStockException;
 import com.intern.order.exception.InvalidOrderStatusException;
 import com.intern.order.exception.OrderNotFoundException;
 import com.intern.order.exception.ProductNotFoundException;
+import com.intern.order.logging.LogMarkers;
+import com.intern.order.metrics.OrderMetrics;
+import com.intern.order.repository.OrderItemRepository;
+import com.intern.order.repository.OrderOutboxRepository;
 import com.intern.order.repository.OrderRepository;
 import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.events.OrderStatusChanged;
+import com.intern.order.service.stock.StockAllocator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("service.method")
 public class OrderService {
 
+    private static final int STATUS_UPDATE_CHUNK_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final StockAllocator stockAllocator;
+    private final CustomerOrderHistoryProjector historyProjector;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
 
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
-        log.info("Creating a new order for customer: {}", request.getCustomerEmail());
-
-        validateNoDuplicateProducts(request.getOrderItems());
-
-        Order newOrder = Order.builder()
-                .customerName(request.getCustomerName())
-                .customerEmail(request.getCustomerEmail())
-                .orderDate(LocalDateTime.now())
-                .status(OrderStatus.PENDING)
-                .build();
-
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        for (OrderItemRequest itemRequest : request.getOrderItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + itemRequest.getProductId()));
-
-            if (product.getStock() < itemRequest.getQuantity()) {
-                throw new InsufficientStockException("Not enough stock for product: " + product.getName() +
-                        ". Available: " + product.getStock() + ", Requested: " + itemRequest.getQuantity());
-            }
-
-            BigDecimal unitPrice = product.getPrice();
-            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            totalAmount = totalAmount.add(totalPrice);
-
-            OrderItem orderItem = OrderItem.builder()
-                    .order(newOrder)
-                    .product(product)
-                    .quantity(itemRequest.getQuantity())
-                    .unitPrice(unitPrice)
-                    .totalPrice(totalPrice)
-                    .build();
-
-            newOrder.getOrderItems().add(orderItem);
+        Order newOrder = buildOrder(request, OrderStatus.PENDING);
 
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+        // Zaxira butun savat uchun birdaniga band qilinadi (app.stock.mode ga qarab DB yoki hisoblagichlardan).
+        // Yetmasa InsufficientStockException tashlanadi va tranzaksiya bekor qilinadi.
+        try {
+            stockAllocator.reserve(quantitiesByProductId(newOrder));
+        } catch (InsufficientStockException e) {
+            orderMetrics.insufficientStock();
+            throw e;
         }
 
-        newOrder.setTotalAmount(totalAmount);
         Order savedOrder = orderRepository.save(newOrder);
+        historyProjector.orderPlaced(savedOrder);
+        orderMetrics.orderCreated(savedOrder);
+
+        logPlaced("Order created with ID: {}", savedOrder);
+        return mapToOrderResponse(savedOrder);
+    }
+
+    /**
+     * Asynchronous intake (app.orders.intake.mode=async): stores the order as RECEIVED together with an
+     * outbox entry and returns without touching stock. {@link OrderIntakeWorker} later moves it to PENDING
+     * or REJECTED. Unknown and duplicate products are still rejected right away.
+     */
+    @Transactional
+    public OrderResponse acceptOrder(CreateOrderRequest request) {
+        Order savedOrder = orderRepository.save(buildOrder(request, OrderStatus.RECEIVED));
+        orderOutboxRepository.save(OrderOutboxEntry.builder()
+                .orderId(savedOrder.getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+        historyProjector.orderPlaced(savedOrder);
+        orderMetrics.orderReceived(savedOrder);
 
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        logPlaced("Order received with ID: {}", savedOrder);
         return mapToOrderResponse(savedOrder);
     }
 
@@ -90,17 +111,43 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of orders, newest first. Pass the returned {@code nextCursor} back to get the next page.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersPage(OrderSearchCriteria criteria, String cursor, int size) {
+        // Bitta ortiqcha qator o'qiladi: u bor bo'lsa, keyingi sahifa ham bor
+        List<Order> orders = orderRepository.findPage(criteria, OrderCursor.decode(cursor), size + 1);
+        boolean hasNext = orders.size() > size;
+        List<Order> page = hasNext ? orders.subList(0, size) : orders;
+
+        return OrderPageResponse.builder()
+                .content(page.stream().map(this::mapToOrderResponse).collect(Collectors.toList()))
+                .nextCursor(hasNext ? OrderCursor.of(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Hands every matching order to the consumer as soon as it has been read from the database.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderSearchCriteria criteria, Consumer<OrderResponse> consumer) {
+        orderRepository.streamOrders(criteria, consumer);
+    }
+
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
         Order order = findOrderById(id);
         return mapToOrderResponse(order);
     }
 
+    /**
+     * Served from the customer_order_history read model: one indexed lookup, no joins.
+     */
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByCustomerEmail(String email) {
-        return orderRepository.findByCustomerEmail(email).stream()
-                .map(this::mapToOrderResponse)
-                .collect(Collectors.toList());
+        return historyProjector.findHistory(email);
     }
 
     @Transactional
@@ -108,47 +155,302 @@ public class OrderService {
         log.info("Updating status for order ID: {} to {}", id, newStatus);
         Order order = findOrderById(id);
 
-        // Qo'shimcha biznes qoidasi: Faqat PENDING statusidagi buyurtmani o'zgartirish mumkin
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new InvalidOrderStatusException("Only orders with PENDING status can be modified. Current status: " + order.getStatus());
+        String error = transitionError(order.getStatus(), newStatus);
+        if (error != null) {
+            throw new InvalidOrderStatusException(error);
         }
 
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
+        historyProjector.statusChanged(updatedOrder);
+        eventPublisher.publishEvent(new OrderStatusChanged(id, newStatus));
         log.info("Status for order ID: {} updated successfully to {}", id, newStatus);
         return mapToOrderResponse(updatedOrder);
     }
 
+    /**
+     * Moves many orders to the same status, e.g. everything a warehouse scanner marked as shipped.
+     * Each order is checked against the {@link OrderStatus} transition table; the valid ones are updated
+     * with one set-based UPDATE per chunk of IDs. Invalid and unknown IDs are reported in the results
+     * and do not stop the others.
+     * <p>
+     * The orders are locked in ascending ID order before anything is updated, the same order
+     * {@link #cancelOrders} uses, so concurrent bulk writers queue up instead of deadlocking.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse updateOrderStatuses(List<Long> orderIds, OrderStatus newStatus) {
+        List<Long> ids = orderIds.stream().distinct().toList();
+        log.info("Updating status of {} order(s) to {}", ids.size(), newStatus);
+
+        Map<Long, OrderStatus> currentStatuses = lockStatuses(ids);
+        Map<Long, BulkStatusUpdateResult> results = new LinkedHashMap<>();
+        List<Long> eligible = new ArrayList<>();
+        for (Long id : ids) {
+            OrderStatus current = currentStatuses.get(id);
+            String error = current == null ? "Order not found with id: " + id : transitionError(current, newStatus);
+            results.put(id, BulkStatusUpdateResult.builder()
+                    .orderId(id)
+                    .outcome(error == null ? BulkStatusUpdateOutcome.UPDATED
+                            : current == null ? BulkStatusUpdateOutcome.NOT_FOUND : BulkStatusUpdateOutcome.REJECTED)
+                    .previousStatus(current)
+                    .error(error)
+                    .build());
+            if (error == null) {
+                eligible.add(id);
+            }
+        }
+
+        // WHERE status IN (...) qayta tekshiradi: o'qish va UPDATE orasida o'zgargan buyurtma tegilmaydi
+        Set<OrderStatus> sources = OrderStatus.sourcesOf(newStatus);
+        sources.remove(OrderStatus.RECEIVED);
+        int updated = 0;
+        for (List<Long> chunk : chunks(eligible)) {
+            updated += orderRepository.updateStatuses(chunk, sources, newStatus);
+        }
+        if (updated != eligible.size()) {
+            Map<Long, OrderStatus> afterUpdate = readStatuses(eligible);
+            eligible.removeIf(id -> {
+                OrderStatus now = afterUpdate.get(id);
+                if (now == newStatus) {
+                    return false;
+                }
+                BulkStatusUpdateResult result = results.get(id);
+                result.setOutcome(now == null ? BulkStatusUpdateOutcome.NOT_FOUND : BulkStatusUpdateOutcome.REJECTED);
+                result.setError("Order was changed concurrently, current status: " + now);
+                return true;
+            });
+        }
+
+        for (List<Long> chunk : chunks(eligible)) {
+            historyProjector.statusesChanged(chunk, newStatus);
+        }
+        eligible.forEach(id -> eventPublisher.publishEvent(new OrderStatusChanged(id, newStatus)));
+
+        log.info("Updated {} order(s) to {}, {} failed", eligible.size(), newStatus, ids.size() - eligible.size());
+        return BulkStatusUpdateResponse.builder()
+                .updated(eligible.size())
+                .failed(ids.size() - eligible.size())
+                .results(new ArrayList<>(results.values()))
+                .build();
+    }
+
     @Transactional
     public void cancelOrder(Long id) {
-        log.warn("Attempting to cancel order ID: {}", id);
-        Order order = findOrderById(id);
+        BulkStatusUpdateResult result = cancelOrders(List.of(id)).getResults().get(0);
+        switch (result.getOutcome()) {
+            case NOT_FOUND -> throw new OrderNotFoundException(result.getError());
+            case REJECTED -> throw new InvalidOrderStatusException(result.getError());
+            case UPDATED -> log.debug("Order ID: {} has been cancelled", id); // cancelOrders xulosani INFO'da yozgan
+        }
+    }
+
+    /**
+     * Cancels many orders in one transaction and returns their stock with a single set-based UPDATE.
+     * <p>
+     * Locks are always taken in the same order: outbox entries, then orders by ascending ID, then products
+     * by ascending ID (inside {@link StockAllocator#release}). Checkouts only lock products, in the same
+     * ascending order, and the intake worker is waited for on the outbox entries before any order is locked,
+     * so none of them can end up waiting on each other in a cycle.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse cancelOrders(List<Long> orderIds) {
+        List<Long> ids = orderIds.stream().distinct().sorted().toList();
 
-        // Buyurtmani faqat ma'lum statuslarda bekor qilish mumkin (masalan, DELIVERED bo'lsa bekor qilib bo'lmaydi)
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new InvalidOrderStatusException("Cannot cancel an order that is already " + order.getStatus());
+        // RECEIVED buyurtmalar worker'dan tortib olinadi; worker hozir ishlayotgan yozuvlar uchun u tugashi kutiladi
+        for (List<Long> chunk : chunks(ids)) {
+            orderOutboxRepository.deleteByOrderIdIn(chunk);
         }
+        Map<Long, OrderStatus> statuses = lockStatuses(ids);
 
-        // Qo'shimcha biznes qoidasi: Bekor qilinganda mahsulot sonini omborga qaytarish
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
-            log.info("Returned {} unit(s) of product '{}' to stock.", item.getQuantity(), product.getName());
+        Map<Long, BulkStatusUpdateResult> results = new LinkedHashMap<>();
+        List<Long> cancelled = new ArrayList<>();
+        List<Long> withReservedStock = new ArrayList<>();
+        for (Long id : orderIds.stream().distinct().toList()) {
+            OrderStatus current = statuses.get(id);
+            BulkStatusUpdateResult.BulkStatusUpdateResultBuilder result = BulkStatusUpdateResult.builder()
+                    .orderId(id)
+                    .previousStatus(current);
+            if (current == null) {
+                result.outcome(BulkStatusUpdateOutcome.NOT_FOUND).error("Order not found with id: " + id);
+            } else if (!current.canTransitionTo(OrderStatus.CANCELLED)) {
+                // Buyurtmani faqat ma'lum statuslarda bekor qilish mumkin (masalan, DELIVERED bo'lsa bekor qilib bo'lmaydi)
+                result.outcome(BulkStatusUpdateOutcome.REJECTED).error("Cannot cancel an order that is already " + current);
+            } else {
+                result.outcome(BulkStatusUpdateOutcome.UPDATED);
+                cancelled.add(id);
+                // RECEIVED buyurtma uchun zaxira hali band qilinmagan
+                if (current != OrderStatus.RECEIVED) {
+                    withReservedStock.add(id);
+                }
+            }
+            results.put(id, result.build());
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
-        log.warn("Order ID: {} has been successfully cancelled.", id);
+        // Qo'shimcha biznes qoidasi: Bekor qilinganda mahsulot sonini omborga qaytarish (barcha buyurtmalar uchun bitta UPDATE)
+        Map<Long, Integer> quantitiesByProductId = new HashMap<>();
+        for (List<Long> chunk : chunks(withReservedStock)) {
+            orderItemRepository.sumQuantitiesByProduct(chunk).forEach(line ->
+                    quantitiesByProductId.merge(line.getProductId(), line.getQuantity().intValue(), Integer::sum));
+        }
+        if (!quantitiesByProductId.isEmpty()) {
+            stockAllocator.release(quantitiesByProductId);
+            quantitiesByProductId.forEach((productId, quantity) ->
+                    log.info(LogMarkers.SAMPLED, "Returned {} unit(s) of product {}", quantity, productId));
+        }
+
+        Set<OrderStatus> sources = OrderStatus.sourcesOf(OrderStatus.CANCELLED);
+        for (List<Long> chunk : chunks(cancelled)) {
+            orderRepository.updateStatuses(chunk, sources, OrderStatus.CANCELLED);
+            historyProjector.statusesChanged(chunk, OrderStatus.CANCELLED);
+        }
+        cancelled.forEach(id -> eventPublisher.publishEvent(new OrderStatusChanged(id, OrderStatus.CANCELLED)));
+
+        log.info("Cancelled {} order(s) and returned stock for {} product(s), {} failed",
+                cancelled.size(), quantitiesByProductId.size(), results.size() - cancelled.size());
+        return BulkStatusUpdateResponse.builder()
+                .updated(cancelled.size())
+                .failed(results.size() - cancelled.size())
+                .results(new ArrayList<>(results.values()))
+                .build();
     }
 
     // --- Yordamchi metodlar ---
 
+    /**
+     * One line per order, with the ID, customer and size as structured key-value pairs (JSON fields in prod);
+     * the per-item lines are sampled.
+     */
+    private void logPlaced(String message, Order order) {
+        log.atInfo()
+                .addKeyValue("orderId", order.getId())
+                .addKeyValue("customerEmail", order.getCustomerEmail())
+                .addKeyValue("items", order.getOrderItems().size())
+                .addKeyValue("totalAmount", order.getTotalAmount())
+                .log(message, order.getId());
+        if (log.isInfoEnabled()) {
+            for (OrderItem item : order.getOrderItems()) {
+                log.info(LogMarkers.SAMPLED, "Order line: {} unit(s) of product {}", item.getQuantity(), item.getProduct().getId());
+            }
+        }
+    }
+
     private Order findOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
     }
 
+    /**
+     * Checks a status change requested through the API against the transition table.
+     * @return why the change is not allowed, or {@code null} if it is
+     */
+    private static String transitionError(OrderStatus current, OrderStatus target) {
+        // Bekor qilishda zaxira qaytarilishi kerak, buni faqat cancelOrder qiladi
+        if (target == OrderStatus.CANCELLED) {
+            return "Use DELETE /api/orders/{id} or POST /api/orders/cancel to cancel an order, so that its stock is returned";
+        }
+        // RECEIVED buyurtmaning keyingi holatini zaxira natijasiga qarab faqat OrderIntakeWorker belgilaydi
+        if (current == OrderStatus.RECEIVED) {
+            return "Order is still being processed, its status cannot be changed yet";
+        }
+        if (!current.canTransitionTo(target)) {
+            return "Cannot change order status from " + current + " to " + target;
+        }
+        return null;
+    }
+
+    /**
+     * SELECT ... FOR UPDATE in ascending ID order across all chunks: every bulk writer takes order locks in
+     * the same order.
+     */
+    private Map<Long, OrderStatus> lockStatuses(List<Long> ids) {
+        Map<Long, OrderStatus> statuses = new HashMap<>();
+        for (List<Long> chunk : chunks(ids.stream().sorted().toList())) {
+            orderRepository.findAllForUpdate(chunk).forEach(order -> statuses.put(order.getId(), order.getStatus()));
+        }
+        return statuses;
+    }
+
+    private Map<Long, OrderStatus> readStatuses(List<Long> ids) {
+        Map<Long, OrderStatus> statuses = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            orderRepository.findStatuses(chunk).forEach(view -> statuses.put(view.getId(), view.getStatus()));
+        }
+        return statuses;
+    }
+
+    // IN ro'yxati cheklangan: bitta so'rovdagi parametrlar soni bazaning chegarasidan oshmasin
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + STATUS_UPDATE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Builds the order and its items at the current product prices. Stock is not checked here.
+     * @throws ProductNotFoundException for the first requested ID that does not exist
+     */
+    private Order buildOrder(CreateOrderRequest request, OrderStatus status) {
+        validateNoDuplicateProducts(request.getOrderItems());
+
+        Order newOrder = Order.builder()
+                .customerName(request.getCustomerName())
+                .customerEmail(request.getCustomerEmail())
+                .orderDate(LocalDateTime.now())
+                .status(status)
+                .build();
+
+        Map<Long, Product> productsById = loadProducts(request.getOrderItems());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for (OrderItemRequest itemRequest : request.getOrderItems()) {
+            Product product = productsById.get(itemRequest.getProductId());
+
+            BigDecimal unitPrice = product.getPrice();
+            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            totalAmount = totalAmount.add(totalPrice);
+
+            OrderItem orderItem = OrderItem.builder()
+                    .order(newOrder)
+                    .product(product)
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(unitPrice)
+                    .totalPrice(totalPrice)
+                    .build();
+
+            newOrder.getOrderItems().add(orderItem);
+        }
+
+        newOrder.setTotalAmount(totalAmount);
+        return newOrder;
+    }
+
+    static Map<Long, Integer> quantitiesByProductId(Order order) {
+        return order.getOrderItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum));
+    }
+
+    /**
+     * Loads every product referenced by the order with a single IN query.
+     * @throws ProductNotFoundException for the first requested ID that does not exist
+     */
+    private Map<Long, Product> loadProducts(List<OrderItemRequest> items) {
+        List<Long> productIds = items.stream()
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toList());
+
+        Map<Long, Product> productsById = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (Long productId : productIds) {
+            if (!productsById.containsKey(productId)) {
+                throw new ProductNotFoundException("Product not found with id: " + productId);
+            }
+        }
+        return productsById;
+    }
+
     private void validateNoDuplicateProducts(List<OrderItemRequest> items) {
         Set<Long> productIds = new HashSet<>();
         for (OrderItemRequest item : items) {
@@ -0,0 +1,57 @@
+package com.intern.order.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Generation token that is part of every "productSearch" cache key. Changing it makes all cached
+ * search results unreachable at once (they then expire by TTL), without scanning or deleting keys
+ * and without touching the per-product "products" entries.
+ * <p>
+ * The token is random rather than a counter: if it is lost (TTL, Redis restart), a fresh one can never
+ * collide with the token of older, still cached search results.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchGeneration {
+
+    static final String CACHE_NAME = "productSearchGeneration";
+    private static final String KEY = "current";
+
+    private final CacheManager cacheManager;
+
+    public String current() {
+        Cache cache = cache();
+        String token = cache.get(KEY, String.class);
+        if (token != null) {
+            return token;
+        }
+        String newToken = newToken();
+        Cache.ValueWrapper existing = cache.putIfAbsent(KEY, newToken);
+        return existing == null ? newToken : (String) existing.get();
+    }
+
+    /**
+     * Invalidates every cached search result. With a transaction-aware cache manager the new token
+     * only becomes visible after the surrounding transaction commits.
+     */
+    public void bump() {
+        cache().put(KEY, newToken());
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CACHE_NAME);
+        }
+        return cache;
+    }
+
+    private static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+}
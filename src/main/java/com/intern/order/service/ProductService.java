@@ -2,31 +2,50 @@ package com.intern.order.service;
 
 import com.intern.order.dto.CreateProductRequest;
 import com.intern.order.dto.ProductResponse;
+import com.intern.order.dto.SearchIndexStatsResponse;
 import com.intern.order.dto.UpdateProductRequest;
 import com.intern.order.entity.Product;
 import com.intern.order.exception.ProductNotFoundException;
 import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.search.ProductSearchIndex;
+import com.intern.order.service.stock.StockAllocator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.annotations.Cache;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("service.method")
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final StockAllocator stockAllocator;
+    private final ProductSearchGeneration searchGeneration;
+    private final ProductSearchIndex searchIndex;
+
+    public SearchIndexStatsResponse rebuildSearchIndex() {
+        if (!searchIndex.isEnabled()) {
+            throw new IllegalStateException("In-memory product search is disabled (app.search.engine=database)");
+        }
+        SearchIndexStatsResponse stats = searchIndex.rebuild();
+        searchGeneration.bump();
+        return stats;
+    }
 
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
@@ -41,7 +60,7 @@ public class ProductService {
         return mapToProductResponse(product);
     }
 
-    @CacheEvict(value = "products", allEntries = true)
+    // Yangi mahsulot faqat qidiruv natijalariga ta'sir qiladi, "products" keshidagi yozuvlar o'zgarmaydi
     @Transactional
     public ProductResponse createProduct(CreateProductRequest request) {
         log.info("Creating a new product with name: {}", request.getName());
@@ -53,14 +72,13 @@ public class ProductService {
                 .isActive(request.getIsActive())
                 .build();
         Product savedProduct = productRepository.save(product);
+        searchGeneration.bump();
+        searchIndex.indexed(savedProduct);
         log.info("Product created successfully with ID: {}", savedProduct.getId());
         return mapToProductResponse(savedProduct);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "products", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#id")
     @Transactional
     public ProductResponse updateProduct(Long id, UpdateProductRequest request) {
         log.info("Updating product with ID: {}", id);
@@ -74,14 +92,14 @@ public class ProductService {
         existingProduct.setIsActive(request.getIsActive());
 
         Product updatedProduct = productRepository.save(existingProduct);
+        stockAllocator.invalidate(id);
+        searchGeneration.bump();
+        searchIndex.indexed(updatedProduct);
         log.info("Product with ID: {} updated successfully.", id);
         return mapToProductResponse(updatedProduct);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "products", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#id")
     @Transactional
     public void deleteProduct(Long id) {
         log.warn("Attempting to delete product with ID: {}", id);
@@ -89,18 +107,34 @@ public class ProductService {
             throw new ProductNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        stockAllocator.invalidate(id);
+        searchGeneration.bump();
+        searchIndex.removed(id);
         log.warn("Product with ID: {} has been deleted.", id);
     }
 
-    @Cacheable(value = "products", key = "'search_name=' + #name + '_category=' + #category")
+    /**
+     * Returns one page of matching products, best matches first. With app.search.engine=in-memory the
+     * ranking comes from {@link ProductSearchIndex} and only that page is loaded from the database;
+     * otherwise see {@link ProductRepository#search}.
+     */
+    @Cacheable(value = "productSearch", key = "@productSearchGeneration.current() + ':name=' + #name + ':category=' + #category + ':page=' + #page + ':size=' + #size")
     @Transactional(readOnly = true)
-    public List<ProductResponse> searchProducts(String name, String category) {
-        String searchName = (name == null) ? "" : name;
-        String searchCategory = (category == null) ? "" : category;
+    public List<ProductResponse> searchProducts(String name, String category, int page, int size) {
+        List<Long> rankedIds = searchIndex.search(name, category, page * size, size);
+        if (rankedIds == null) {
+            return productRepository.search(name, category, page * size, size)
+                    .stream()
+                    .map(this::mapToProductResponse)
+                    .collect(Collectors.toList());
+        }
 
-        return productRepository
-                .findByNameContainingIgnoreCaseAndCategoryContainingIgnoreCase(searchName, searchCategory)
-                .stream()
+        // Narx va qoldiq indeksda saqlanmaydi, ular har doim bazadan o'qiladi
+        Map<Long, Product> productsById = productRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,160 @@
+package com.intern.order.service.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.OrderEventProperties;
+import com.intern.order.dto.OrderStatusEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed order status changes to SSE subscribers (GET /api/orders/events).
+ * <p>
+ * Each event is serialized once and handed to every subscriber's queue; the committing thread never
+ * writes to a socket. Delivery runs on virtual threads, one drain task per subscriber with pending events.
+ * The latest app.orders.events.replay-size events are kept in memory so a client reconnecting with
+ * Last-Event-ID gets what it missed. If it has fallen out of that window, it receives a {@code resync}
+ * event and should re-read the orders it cares about.
+ * <p>
+ * Events are per instance: with several instances behind a load balancer, a subscriber only sees changes
+ * committed on the instance it is connected to.
+ */
+@Component
+public class OrderEventBroadcaster {
+
+    static final String STATUS_EVENT = "order-status";
+    static final String RESYNC_EVENT = "resync";
+
+    private final OrderEventProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Set<OrderEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService delivery = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("order-events-", 0).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("order-events-heartbeat-"));
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("keep-alive").build();
+
+    // Nashr qilish va obuna bo'lish bitta qulf ostida: qayta yuborilgan hodisalar bilan jonli hodisalar orasida bo'shliq qolmaydi
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<RecentEvent> recent = new ArrayDeque<>();
+    // Ilova qayta ishga tushganda ham ID'lar o'sib boradi, eski Last-Event-ID yangi hodisalarga to'g'ri kelib qolmaydi
+    private long lastEventId = System.currentTimeMillis() * 1000;
+
+    public OrderEventBroadcaster(OrderEventProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(subscriber -> subscriber.heartbeat(heartbeat)),
+                interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param orderId only stream events of this order, or all orders if {@code null}
+     * @param lastEventId id of the last event the client received, to replay everything after it
+     */
+    public SseEmitter subscribe(Long orderId, Long lastEventId) {
+        return subscribe(new SseEmitter(properties.getTimeout().toMillis()), orderId, lastEventId);
+    }
+
+    // Testlar sekin mijozni taqlid qiluvchi emitter beradi
+    SseEmitter subscribe(SseEmitter emitter, Long orderId, Long lastEventId) {
+        OrderEventSubscriber subscriber = new OrderEventSubscriber(emitter, orderId, properties.getSubscriberBuffer(), delivery);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void statusChanged(OrderStatusChanged change) {
+        lock.lock();
+        try {
+            OrderStatusEvent event = OrderStatusEvent.builder()
+                    .eventId(++lastEventId)
+                    .orderId(change.orderId())
+                    .status(change.status())
+                    .changedAt(LocalDateTime.now())
+                    .build();
+            RecentEvent published = new RecentEvent(event.getEventId(), event.getOrderId(), toSse(event));
+            recent.addLast(published);
+            if (recent.size() > properties.getReplaySize()) {
+                recent.pollFirst();
+            }
+            for (OrderEventSubscriber subscriber : subscribers) {
+                if (subscriber.accepts(published.orderId())) {
+                    subscriber.offer(published.sse());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(OrderEventSubscriber::close);
+        delivery.shutdown();
+    }
+
+    private void replay(OrderEventSubscriber subscriber, long lastEventId) {
+        // Oyna tashqarisidagi (yoki boshqa instansiyadan kelgan) ID: nima o'tkazib yuborilganini bilmaymiz
+        long oldestKept = recent.isEmpty() ? this.lastEventId + 1 : recent.peekFirst().eventId();
+        if (lastEventId < oldestKept - 1 || lastEventId > this.lastEventId) {
+            subscriber.replay(SseEmitter.event().name(RESYNC_EVENT).data("Missed events are no longer available").build());
+            return;
+        }
+        for (RecentEvent event : recent) {
+            if (event.eventId() > lastEventId && subscriber.accepts(event.orderId())) {
+                subscriber.replay(event.sse());
+            }
+        }
+    }
+
+    private Set<DataWithMediaType> toSse(OrderStatusEvent event) {
+        try {
+            // Bir marta JSON'ga aylantiriladi, barcha obunachilarga shu tayyor matn yuboriladi
+            return SseEmitter.event()
+                    .id(String.valueOf(event.getEventId()))
+                    .name(STATUS_EVENT)
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event " + event.getEventId(), e);
+        }
+    }
+
+    private record RecentEvent(long eventId, Long orderId, Set<DataWithMediaType> sse) {
+    }
+}
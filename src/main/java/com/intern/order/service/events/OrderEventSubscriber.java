@@ -0,0 +1,101 @@
+package com.intern.order.service.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE connection. Events are queued without blocking the publisher and written by a single
+ * drain task at a time on the delivery executor, so a slow socket only holds up its own subscriber.
+ */
+final class OrderEventSubscriber {
+
+    private final SseEmitter emitter;
+    private final Long orderId;
+    private final int capacity;
+    private final Executor delivery;
+
+    private final LinkedBlockingQueue<Set<DataWithMediaType>> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    OrderEventSubscriber(SseEmitter emitter, Long orderId, int capacity, Executor delivery) {
+        this.emitter = emitter;
+        this.orderId = orderId;
+        this.capacity = capacity;
+        this.delivery = delivery;
+    }
+
+    boolean accepts(Long eventOrderId) {
+        return orderId == null || orderId.equals(eventOrderId);
+    }
+
+    /**
+     * Queues a live event. A subscriber that already has {@code capacity} events waiting is disconnected
+     * instead of buffering without limit; it reconnects with Last-Event-ID and gets the missed events replayed.
+     */
+    void offer(Set<DataWithMediaType> event) {
+        if (closed) {
+            return;
+        }
+        if (queue.size() >= capacity) {
+            closed = true;
+            queue.clear();
+            delivery.execute(emitter::complete);
+            return;
+        }
+        queue.add(event);
+        scheduleDrain();
+    }
+
+    /**
+     * Queues a replayed event; replay is bounded by the replay buffer, not by {@code capacity}.
+     */
+    void replay(Set<DataWithMediaType> event) {
+        queue.add(event);
+    }
+
+    /**
+     * Comment line that keeps idle connections open and reveals clients that went away.
+     */
+    void heartbeat(Set<DataWithMediaType> comment) {
+        if (queue.isEmpty()) {
+            offer(comment);
+        }
+    }
+
+    void close() {
+        closed = true;
+        queue.clear();
+        emitter.complete();
+    }
+
+    void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            delivery.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            Set<DataWithMediaType> event;
+            while (!closed && (event = queue.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Mijoz uzilgan yoki emitter allaqachon yakunlangan
+                    closed = true;
+                    queue.clear();
+                    emitter.completeWithError(e);
+                }
+            }
+            draining.set(false);
+            // Navbat bo'shagandan keyin kelgan hodisani boshqa drain ishga tushirmagan bo'lishi mumkin
+        } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+}
@@ -0,0 +1,10 @@
+package com.intern.order.service.events;
+
+import com.intern.order.enums.OrderStatus;
+
+/**
+ * Published inside the transaction that changes an order's status;
+ * {@link OrderEventBroadcaster} forwards it to SSE subscribers once that transaction commits.
+ */
+public record OrderStatusChanged(Long orderId, OrderStatus status) {
+}
@@ -0,0 +1,15 @@
+package com.intern.order.service.idempotency;
+
+import com.intern.order.dto.OrderResponse;
+
+/**
+ * What is stored for one Idempotency-Key.
+ * @param fingerprint hash of the request body that first used the key
+ * @param response the answer to replay, or {@code null} while that request is still running
+ */
+public record IdempotencyRecord(String fingerprint, OrderResponse response) {
+
+    public boolean isCompleted() {
+        return response != null;
+    }
+}
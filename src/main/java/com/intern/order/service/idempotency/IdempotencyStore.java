@@ -0,0 +1,33 @@
+package com.intern.order.service.idempotency;
+
+import com.intern.order.dto.OrderResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Remembers which Idempotency-Key values POST /api/orders has seen and what it answered.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Atomically claims the key for one execution unless it is already known.
+     * @param token random value identifying this claim; {@link #complete} and {@link #abandon} only act on
+     *              the claim holding it, so a request whose claim expired cannot touch a later claim of the same body
+     * @param inFlightTimeout how long the claim lasts if it is never completed or abandoned
+     * @return empty if the caller now owns the key, otherwise the record that is already stored
+     */
+    Optional<IdempotencyRecord> claim(String key, String fingerprint, String token, Duration inFlightTimeout);
+
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Stores the response for replays, unless the claim has meanwhile passed to another request.
+     */
+    void complete(String key, String fingerprint, String token, OrderResponse response, Duration ttl);
+
+    /**
+     * Releases an uncompleted claim so that a retry executes again.
+     */
+    void abandon(String key, String fingerprint, String token);
+}
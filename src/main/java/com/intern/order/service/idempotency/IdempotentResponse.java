@@ -0,0 +1,9 @@
+package com.intern.order.service.idempotency;
+
+import com.intern.order.dto.OrderResponse;
+
+/**
+ * @param replayed {@code true} if the response belongs to an earlier request with the same key
+ */
+public record IdempotentResponse(OrderResponse response, boolean replayed) {
+}
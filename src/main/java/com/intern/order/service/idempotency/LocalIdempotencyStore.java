@@ -0,0 +1,70 @@
+package com.intern.order.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.intern.order.dto.OrderResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keys in a bounded Caffeine cache, each expiring after its own TTL. Not shared between instances,
+ * so a retry that reaches another instance executes again; meant for a single instance and tests.
+ */
+public class LocalIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+
+    public LocalIdempotencyStore(long maximumSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint, String token, Duration inFlightTimeout) {
+        Entry existing = entries.asMap().putIfAbsent(key, new Entry(new IdempotencyRecord(fingerprint, null), token, inFlightTimeout));
+        return Optional.ofNullable(existing).map(Entry::record);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(entries.getIfPresent(key)).map(Entry::record);
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, String token, OrderResponse response, Duration ttl) {
+        entries.asMap().compute(key, (k, existing) -> existing == null || isClaimOf(existing, token)
+                ? new Entry(new IdempotencyRecord(fingerprint, response), token, ttl)
+                : existing);
+    }
+
+    @Override
+    public void abandon(String key, String fingerprint, String token) {
+        entries.asMap().computeIfPresent(key, (k, existing) -> isClaimOf(existing, token) ? null : existing);
+    }
+
+    private static boolean isClaimOf(Entry entry, String token) {
+        return !entry.record().isCompleted() && entry.token().equals(token);
+    }
+
+    private record Entry(IdempotencyRecord record, String token, Duration ttl) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.intern.order.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.OrderIdempotencyProperties;
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.exception.IdempotencyKeyInProgressException;
+import com.intern.order.exception.IdempotencyKeyMismatchException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs POST /api/orders at most once per Idempotency-Key.
+ * <p>
+ * A key that has completed is answered from the {@link IdempotencyStore} without touching the database.
+ * Duplicates that arrive while the first request is still running wait for its outcome instead of executing:
+ * on the same instance they share the running request's result (or exception), on another instance they
+ * poll the store. A request that fails releases its key, so the client's next retry executes again.
+ * Reusing a key with a different request body is rejected.
+ */
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyStore store;
+    private final OrderIdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // Shu instansiyada hozir bajarilayotgan kalitlar: takroriy so'rovlar Redis'ni so'rab turmasdan natijani kutadi
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(IdempotencyStore store, OrderIdempotencyProperties properties, ObjectMapper objectMapper) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public IdempotentResponse execute(String key, CreateOrderRequest request, Function<CreateOrderRequest, OrderResponse> action) {
+        String fingerprint = fingerprint(request);
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkFingerprint(key, running.fingerprint(), fingerprint);
+            return new IdempotentResponse(await(key, running.result()), true);
+        }
+
+        try {
+            IdempotentResponse response = executeOnce(key, fingerprint, request, action);
+            mine.result().complete(response.response());
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private IdempotentResponse executeOnce(String key, String fingerprint, CreateOrderRequest request,
+                                           Function<CreateOrderRequest, OrderResponse> action) {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        // Claim egasini fingerprint emas, token aniqlaydi: muddati o'tgan so'rov keyingi xuddi shunday so'rovning claim'ini o'chirmaydi
+        String token = UUID.randomUUID().toString();
+        Optional<IdempotencyRecord> existing = store.claim(key, fingerprint, token, properties.getInFlightTimeout());
+        while (existing.isPresent()) {
+            IdempotencyRecord stored = existing.get();
+            checkFingerprint(key, stored.fingerprint(), fingerprint);
+            if (stored.isCompleted()) {
+                log.info("Replaying order ID: {} for a repeated Idempotency-Key", stored.response().getId());
+                return new IdempotentResponse(stored.response(), true);
+            }
+            // Asl so'rov boshqa instansiyada ishlayapti
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still being processed");
+            }
+            sleep();
+            existing = store.find(key);
+            if (existing.isEmpty()) {
+                // Asl so'rov muvaffaqiyatsiz tugadi va kalitni bo'shatdi: endi shu so'rov bajariladi
+                existing = store.claim(key, fingerprint, token, properties.getInFlightTimeout());
+            }
+        }
+
+        OrderResponse response;
+        try {
+            response = action.apply(request);
+        } catch (RuntimeException e) {
+            store.abandon(key, fingerprint, token);
+            throw e;
+        }
+        try {
+            store.complete(key, fingerprint, token, response, properties.getTtl());
+        } catch (RuntimeException e) {
+            // Buyurtma allaqachon saqlangan, shuning uchun javob qaytariladi; kalit in-flight-timeout'dan keyin bo'shaydi
+            log.error("Could not store the response of order ID: {} for its Idempotency-Key", response.getId(), e);
+        }
+        return new IdempotentResponse(response, false);
+    }
+
+    private OrderResponse await(String key, CompletableFuture<OrderResponse> result) {
+        try {
+            return result.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order creation failed for Idempotency-Key " + key, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted while waiting for the request with this Idempotency-Key");
+        }
+    }
+
+    private static void checkFingerprint(String key, String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key " + key + " was already used with a different request body");
+        }
+    }
+
+    private String fingerprint(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the order request", e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted while waiting for the request with this Idempotency-Key");
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<OrderResponse> result) {
+    }
+}
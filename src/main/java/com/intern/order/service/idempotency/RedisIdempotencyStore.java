@@ -0,0 +1,107 @@
+package com.intern.order.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.dto.OrderResponse;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keys in Redis, shared by every instance. A value is the claim token and the request fingerprint, each
+ * followed by a newline, and then the JSON response once the request has completed. Claiming, completing
+ * and abandoning are each one Lua script, so two instances can never both own a key.
+ */
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "{idempotency}:orders:";
+    private static final String SEPARATOR = "\n";
+
+    // KEYS[1] = key; ARGV[1] = claim value, ARGV[2] = claim TTL in ms. Returns the existing value, or nil once claimed
+    private static final RedisScript<String> CLAIM = new DefaultRedisScript<>("""
+            local existing = redis.call('GET', KEYS[1])
+            if existing then
+                return existing
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return nil
+            """, String.class);
+
+    // ARGV[1] = our claim value, ARGV[2] = completed value, ARGV[3] = TTL in ms
+    private static final RedisScript<Long> COMPLETE = new DefaultRedisScript<>("""
+            local existing = redis.call('GET', KEYS[1])
+            if existing and existing ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // ARGV[1] = our claim value
+    private static final RedisScript<Long> ABANDON = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint, String token, Duration inFlightTimeout) {
+        String existing = redisTemplate.execute(CLAIM, List.of(KEY_PREFIX + key),
+                claimValue(fingerprint, token), String.valueOf(inFlightTimeout.toMillis()));
+        return Optional.ofNullable(existing).map(this::decode);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(KEY_PREFIX + key)).map(this::decode);
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, String token, OrderResponse response, Duration ttl) {
+        String claimValue = claimValue(fingerprint, token);
+        try {
+            redisTemplate.execute(COMPLETE, List.of(KEY_PREFIX + key), claimValue,
+                    claimValue + objectMapper.writeValueAsString(response), String.valueOf(ttl.toMillis()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response of order " + response.getId(), e);
+        }
+    }
+
+    @Override
+    public void abandon(String key, String fingerprint, String token) {
+        redisTemplate.execute(ABANDON, List.of(KEY_PREFIX + key), claimValue(fingerprint, token));
+    }
+
+    // Token birinchi turadi: bir xil body bilan kelgan ikki so'rovning claim qiymatlari hech qachon teng bo'lmaydi
+    private static String claimValue(String fingerprint, String token) {
+        return token + SEPARATOR + fingerprint + SEPARATOR;
+    }
+
+    private IdempotencyRecord decode(String value) {
+        int tokenEnd = value.indexOf(SEPARATOR);
+        int fingerprintEnd = value.indexOf(SEPARATOR, tokenEnd + 1);
+        String fingerprint = value.substring(tokenEnd + 1, fingerprintEnd);
+        String json = value.substring(fingerprintEnd + 1);
+        if (json.isEmpty()) {
+            return new IdempotencyRecord(fingerprint, null);
+        }
+        try {
+            return new IdempotencyRecord(fingerprint, objectMapper.readValue(json, OrderResponse.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the stored response for an idempotency key", e);
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.intern.order.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and category.
+ * <p>
+ * Every indexed product version gets the next internal document number, so posting lists are plain
+ * {@code int[]} arrays that only ever grow at the end and stay sorted. An update or delete marks the old
+ * document as deleted instead of touching the posting lists; those entries are dropped by the next rebuild.
+ * <p>
+ * A query term matches an indexed term exactly (score 3), as a prefix (score 2) or, if there is no exact
+ * term, within a small edit distance (score 1). A product must match every term of the name and category
+ * queries. Results are ordered by total score, then by product id.
+ * <p>
+ * Thread-safe: searches share a read lock, writes take the write lock.
+ */
+public class ProductInvertedIndex {
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    // Taxminiy JVM o'lchamlari: TreeMap entry + String + PostingList sarlavhasi, HashMap entry + Long
+    private static final long TERM_OVERHEAD_BYTES = 120;
+    private static final long DOCUMENT_OVERHEAD_BYTES = 72;
+
+    private final FieldIndex nameField = new FieldIndex();
+    private final FieldIndex categoryField = new FieldIndex();
+    private final Map<Long, Integer> documentByProductId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] productIds = new long[1024];
+    private int documentCount;
+
+    /**
+     * Adds the product, replacing its previously indexed version if there is one.
+     */
+    public void put(Long productId, String name, String category) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+            int document = documentCount++;
+            if (document == productIds.length) {
+                productIds = Arrays.copyOf(productIds, productIds.length * 2);
+            }
+            productIds[document] = productId;
+            documentByProductId.put(productId, document);
+            nameField.add(document, tokenize(name));
+            categoryField.add(document, tokenize(category));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param name query for the product name, ignored if blank
+     * @param category query for the category, ignored if blank
+     * @return IDs of the matching products, best matches first
+     */
+    public List<Long> search(String name, String category, int offset, int limit) {
+        List<String> nameTerms = tokenize(name);
+        List<String> categoryTerms = tokenize(category);
+
+        lock.readLock().lock();
+        try {
+            ScoredDocuments matches = null;
+            if (!nameTerms.isEmpty()) {
+                matches = nameField.match(nameTerms);
+            }
+            if (!categoryTerms.isEmpty()) {
+                ScoredDocuments categoryMatches = categoryField.match(categoryTerms);
+                matches = matches == null ? categoryMatches : matches.intersect(categoryMatches);
+            }
+            if (matches == null) {
+                matches = ScoredDocuments.all(documentCount);
+            }
+            return page(matches, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of products currently in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return nameField.terms.size() + categoryField.terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint, including deleted documents that have not been rebuilt away yet.
+     * Maintained on every write, so calling it is cheap.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return nameField.estimatedBytes() + categoryField.estimatedBytes()
+                    + (long) productIds.length * Long.BYTES
+                    + (long) documentByProductId.size() * DOCUMENT_OVERHEAD_BYTES
+                    + deleted.size() / Byte.SIZE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(Long productId) {
+        Integer document = documentByProductId.remove(productId);
+        if (document != null) {
+            deleted.set(document);
+        }
+    }
+
+    /**
+     * Keeps only the best {@code offset + limit} live matches in a bounded heap over positions in
+     * {@code matches}, so a broad query costs O(n log k) without boxing or sorting every match.
+     */
+    private List<Long> page(ScoredDocuments matches, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, matches.size);
+        if (wanted <= offset) {
+            return Collections.emptyList();
+        }
+        // Ildizda saqlanganlarning eng yomoni turadi: yangi moslik undan yaxshi bo'lsa, uning o'rnini oladi
+        int[] heap = new int[wanted];
+        int heapSize = 0;
+        for (int i = 0; i < matches.size; i++) {
+            if (deleted.get(matches.document(i))) {
+                continue;
+            }
+            if (heapSize < wanted) {
+                heap[heapSize] = i;
+                siftUp(matches, heap, heapSize++);
+            } else if (ranksBefore(matches, i, heap[0])) {
+                heap[0] = i;
+                siftDown(matches, heap, 0, heapSize);
+            }
+        }
+        if (heapSize <= offset) {
+            return Collections.emptyList();
+        }
+
+        // Eng yomonidan boshlab olinadi, shuning uchun massiv oxiridan to'ldiriladi
+        int[] ranked = new int[heapSize];
+        for (int n = heapSize; n > 0; n--) {
+            ranked[n - 1] = heap[0];
+            heap[0] = heap[n - 1];
+            siftDown(matches, heap, 0, n - 1);
+        }
+        List<Long> result = new ArrayList<>(heapSize - offset);
+        for (int i = offset; i < heapSize; i++) {
+            result.add(productIds[matches.document(ranked[i])]);
+        }
+        return result;
+    }
+
+    /**
+     * Higher score first, then lower product id.
+     */
+    private boolean ranksBefore(ScoredDocuments matches, int a, int b) {
+        int scoreA = matches.score(a);
+        int scoreB = matches.score(b);
+        if (scoreA != scoreB) {
+            return scoreA > scoreB;
+        }
+        return productIds[matches.document(a)] < productIds[matches.document(b)];
+    }
+
+    private void siftUp(ScoredDocuments matches, int[] heap, int position) {
+        int value = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!ranksBefore(matches, heap[parent], value)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = value;
+    }
+
+    private void siftDown(ScoredDocuments matches, int[] heap, int position, int size) {
+        int value = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBefore(matches, heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksBefore(matches, value, heap[child])) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = value;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return the edit distance between a and b, or {@code max + 1} once it is known to exceed max
+     */
+    static int boundedEditDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Qisqa so'zlarda xato ko'p noto'g'ri moslik beradi, shuning uchun ruxsat etilgan masofa uzunlikka bog'liq
+    private static int allowedEdits(String term) {
+        if (term.length() >= 8) {
+            return 2;
+        }
+        return term.length() >= 4 ? 1 : 0;
+    }
+
+    private static final class FieldIndex {
+
+        private final TreeMap<String, PostingList> terms = new TreeMap<>();
+        private long bytes;
+
+        void add(int document, List<String> tokens) {
+            for (String token : tokens) {
+                PostingList postings = terms.get(token);
+                if (postings == null) {
+                    postings = new PostingList();
+                    terms.put(token, postings);
+                    bytes += TERM_OVERHEAD_BYTES + 2L * token.length() + (long) postings.documents.length * Integer.BYTES;
+                }
+                bytes += postings.add(document);
+            }
+        }
+
+        /**
+         * Documents containing a match for every term, with the summed score of the best match per term.
+         */
+        ScoredDocuments match(List<String> queryTerms) {
+            ScoredDocuments result = null;
+            for (String queryTerm : queryTerms) {
+                ScoredDocuments termMatches = matchTerm(queryTerm);
+                result = result == null ? termMatches : result.intersect(termMatches);
+                if (result.size == 0) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        private ScoredDocuments matchTerm(String queryTerm) {
+            List<PostingList> postings = new ArrayList<>();
+            List<Integer> scores = new ArrayList<>();
+
+            PostingList exact = terms.get(queryTerm);
+            if (exact != null) {
+                postings.add(exact);
+                scores.add(EXACT_SCORE);
+            }
+            NavigableMap<String, PostingList> withPrefix = terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false);
+            for (PostingList list : withPrefix.values()) {
+                postings.add(list);
+                scores.add(PREFIX_SCORE);
+            }
+
+            int maxEdits = allowedEdits(queryTerm);
+            if (exact == null && maxEdits > 0) {
+                // Birinchi harfda xato kam uchraydi: nomzodlar faqat shu harfdan boshlanadigan so'zlar
+                String first = queryTerm.substring(0, 1);
+                for (Map.Entry<String, PostingList> entry : terms.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                    String term = entry.getKey();
+                    if (!term.startsWith(queryTerm) && boundedEditDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                        postings.add(entry.getValue());
+                        scores.add(FUZZY_SCORE);
+                    }
+                }
+            }
+            return ScoredDocuments.union(postings, scores);
+        }
+
+        long estimatedBytes() {
+            return bytes;
+        }
+    }
+
+    private static final class PostingList {
+
+        private int[] documents = new int[4];
+        private int size;
+
+        /**
+         * @return how many bytes the list grew by
+         */
+        long add(int document) {
+            // Bitta nom ichida takrorlangan so'z hujjatni ikki marta qo'shmasligi kerak
+            if (size > 0 && documents[size - 1] == document) {
+                return 0;
+            }
+            long grown = 0;
+            if (size == documents.length) {
+                int capacity = size + (size >> 1) + 1;
+                grown = (long) (capacity - size) * Integer.BYTES;
+                documents = Arrays.copyOf(documents, capacity);
+            }
+            documents[size++] = document;
+            return grown;
+        }
+    }
+
+    /**
+     * Sorted document numbers with a score per document. {@link #all} has no arrays: position i is
+     * document i with score 0, so a blank query does not copy the whole catalog.
+     */
+    private static final class ScoredDocuments {
+
+        private final int[] documents;
+        private final int[] scores;
+        private final int size;
+
+        private ScoredDocuments(int[] documents, int[] scores, int size) {
+            this.documents = documents;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        static ScoredDocuments all(int documentCount) {
+            return new ScoredDocuments(null, null, documentCount);
+        }
+
+        int document(int position) {
+            return documents == null ? position : documents[position];
+        }
+
+        int score(int position) {
+            return scores == null ? 0 : scores[position];
+        }
+
+        /**
+         * Merges the posting lists, keeping the highest score for documents found in several of them.
+         */
+        static ScoredDocuments union(List<PostingList> postings, List<Integer> scores) {
+            int total = 0;
+            for (PostingList list : postings) {
+                total += list.size;
+            }
+            // Hujjat raqami yuqori 32 bitda, ball pastki bitlarda: bitta sort ikkalasini tartiblaydi
+            long[] packed = new long[total];
+            int n = 0;
+            for (int i = 0; i < postings.size(); i++) {
+                PostingList list = postings.get(i);
+                for (int j = 0; j < list.size; j++) {
+                    packed[n++] = ((long) list.documents[j] << 32) | scores.get(i);
+                }
+            }
+            Arrays.sort(packed);
+
+            int[] documents = new int[total];
+            int[] documentScores = new int[total];
+            int size = 0;
+            for (long value : packed) {
+                int document = (int) (value >>> 32);
+                int score = (int) value;
+                if (size > 0 && documents[size - 1] == document) {
+                    documentScores[size - 1] = Math.max(documentScores[size - 1], score);
+                } else {
+                    documents[size] = document;
+                    documentScores[size++] = score;
+                }
+            }
+            return new ScoredDocuments(documents, documentScores, size);
+        }
+
+        ScoredDocuments intersect(ScoredDocuments other) {
+            int[] documents = new int[Math.min(size, other.size)];
+            int[] documentScores = new int[documents.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (this.documents[i] < other.documents[j]) {
+                    i++;
+                } else if (this.documents[i] > other.documents[j]) {
+                    j++;
+                } else {
+                    documents[n] = this.documents[i];
+                    documentScores[n++] = this.scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredDocuments(documents, documentScores, n);
+        }
+    }
+}
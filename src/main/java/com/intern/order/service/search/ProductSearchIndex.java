@@ -0,0 +1,176 @@
+package com.intern.order.service.search;
+
+import com.intern.order.config.ProductSearchProperties;
+import com.intern.order.dto.SearchIndexStatsResponse;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.ProductSearchEngine;
+import com.intern.order.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Owns the {@link ProductInvertedIndex} used when app.search.engine=in-memory: builds it from the
+ * products table at startup and on {@link #rebuild()}, and applies product writes after they commit.
+ * <p>
+ * While the index is not available (not built yet, or over app.search.memory-budget),
+ * {@link #search} returns {@code null} and callers use the database instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private final ProductRepository productRepository;
+    private final ProductSearchProperties properties;
+
+    // synchronized emas: rebuild bazadan o'qiydi, virtual thread esa monitor ichida bloklansa carrier'ni band qiladi
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile ProductInvertedIndex index;
+
+    // Qayta qurish davomidagi yozuvlar: yangi indeksga almashtirishdan oldin qayta qo'llanadi
+    private List<Consumer<ProductInvertedIndex>> pendingWrites;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return IDs of the matching products, best matches first, or {@code null} if the index is not available
+     */
+    public List<Long> search(String name, String category, int offset, int limit) {
+        ProductInvertedIndex current = index;
+        return current == null ? null : current.search(name, category, offset, limit);
+    }
+
+    public void indexed(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+        String category = product.getCategory();
+        afterCommit(index -> index.put(id, name, category));
+    }
+
+    public void removed(Long productId) {
+        afterCommit(index -> index.remove(productId));
+    }
+
+    /**
+     * Reads every product in ID order and swaps in a freshly built index, which also drops deleted entries.
+     * Searches keep using the old index until the new one is ready.
+     */
+    public SearchIndexStatsResponse rebuild() {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+            long startedAt = System.nanoTime();
+            ProductInvertedIndex fresh = new ProductInvertedIndex();
+            boolean withinBudget = true;
+
+            Long lastId = 0L;
+            List<Product> batch;
+            do {
+                batch = productRepository.findByIdGreaterThanOrderById(lastId, Limit.of(properties.getRebuildBatchSize()));
+                for (Product product : batch) {
+                    fresh.put(product.getId(), product.getName(), product.getCategory());
+                    lastId = product.getId();
+                }
+                withinBudget = fresh.estimatedBytes() <= properties.getMemoryBudget().toBytes();
+            } while (withinBudget && batch.size() == properties.getRebuildBatchSize());
+
+            writeLock.lock();
+            try {
+                pendingWrites.forEach(write -> write.accept(fresh));
+                pendingWrites = null;
+                index = withinBudget ? fresh : null;
+            } finally {
+                writeLock.unlock();
+            }
+
+            if (withinBudget) {
+                log.info("Product search index built: {} product(s), {} term(s), ~{} KB in {} ms",
+                        fresh.size(), fresh.termCount(), fresh.estimatedBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+            } else {
+                log.warn("Product search index exceeds the memory budget of {}; searching the database instead",
+                        properties.getMemoryBudget());
+            }
+            return stats(withinBudget ? fresh : null);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public SearchIndexStatsResponse stats() {
+        return stats(index);
+    }
+
+    private SearchIndexStatsResponse stats(ProductInvertedIndex current) {
+        return SearchIndexStatsResponse.builder()
+                .available(current != null)
+                .products(current == null ? 0 : current.size())
+                .terms(current == null ? 0 : current.termCount())
+                .estimatedBytes(current == null ? 0 : current.estimatedBytes())
+                .memoryBudgetBytes(properties.getMemoryBudget().toBytes())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.getEngine() == ProductSearchEngine.IN_MEMORY;
+    }
+
+    private void afterCommit(Consumer<ProductInvertedIndex> write) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(write);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(write);
+            }
+        });
+    }
+
+    private void apply(Consumer<ProductInvertedIndex> write) {
+        writeLock.lock();
+        try {
+            ProductInvertedIndex current = index;
+            if (current != null) {
+                write.accept(current);
+                if (current.estimatedBytes() > properties.getMemoryBudget().toBytes()) {
+                    // O'chirilgan yozuvlar faqat rebuild'da tozalanadi, shuning uchun indeks vaqt o'tishi bilan o'sadi
+                    log.warn("Product search index grew past the memory budget of {}; searching the database until it is rebuilt",
+                            properties.getMemoryBudget());
+                    index = null;
+                }
+            }
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
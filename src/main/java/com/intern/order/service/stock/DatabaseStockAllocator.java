@@ -0,0 +1,65 @@
+package com.intern.order.service.stock;
+
+import com.intern.order.exception.InsufficientStockException;
+import com.intern.order.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Direct-DB mode: every reservation is a single conditional UPDATE on the products table.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.stock", name = "mode", havingValue = "direct", matchIfMissing = true)
+public class DatabaseStockAllocator implements StockAllocator {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        // Yakuniy qaror UPDATE natijasidan olinadi: kamroq qator o'zgargan bo'lsa, zaxira yetmagan
+        int updatedProducts = productRepository.decrementStock(quantitiesByProductId);
+        if (updatedProducts != quantitiesByProductId.size()) {
+            throw insufficientStock(quantitiesByProductId);
+        }
+    }
+
+    /**
+     * {@link #reserve} may already have decremented some rows when it fails, which is fine when the whole
+     * transaction rolls back but not here. The rows are locked in ID order and checked first, so the UPDATE
+     * is only sent when it cannot fail.
+     */
+    @Override
+    public boolean tryReserve(Map<Long, Integer> quantitiesByProductId) {
+        productRepository.findAllForUpdate(quantitiesByProductId.keySet());
+        long enough = productRepository.findStockLevels(quantitiesByProductId.keySet()).stream()
+                .filter(level -> level.getStock() >= quantitiesByProductId.get(level.getId()))
+                .count();
+        if (enough != quantitiesByProductId.size()) {
+            return false;
+        }
+        reserve(quantitiesByProductId);
+        return true;
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        productRepository.addStock(quantitiesByProductId);
+    }
+
+    /**
+     * Only runs on the failure path: re-reads stock levels to name the product that ran out.
+     */
+    private InsufficientStockException insufficientStock(Map<Long, Integer> quantitiesByProductId) {
+        return productRepository.findStockLevels(quantitiesByProductId.keySet()).stream()
+                .filter(level -> level.getStock() < quantitiesByProductId.get(level.getId()))
+                .findFirst()
+                .map(level -> new InsufficientStockException("Not enough stock for product id: " + level.getId() +
+                        ". Available: " + level.getStock() + ", Requested: " + quantitiesByProductId.get(level.getId())))
+                .orElseGet(() -> new InsufficientStockException("Not enough stock for one or more products in the order: " +
+                        quantitiesByProductId.keySet()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.intern.order.service.stock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-JVM counters striped across shards by product ID. Reservations are CAS loops on
+ * {@link AtomicInteger}s, so checkouts of different products never contend and checkouts of the
+ * same product never block each other.
+ * Counters are not shared between instances and pending deltas do not survive a crash,
+ * so this backend is meant for a single instance.
+ * <p>
+ * A drained delta stays in the product's pending total until its batch is acknowledged, so a counter
+ * seeded while that batch is being flushed or waits for a retry still accounts for it.
+ */
+public class LocalStockCounterStore implements StockCounterStore {
+
+    private final Shard[] shards;
+
+    public LocalStockCounterStore(int shardCount) {
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @Override
+    public ReservationOutcome tryReserve(Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+        List<Map.Entry<Long, Integer>> reserved = new ArrayList<>(ordered.size());
+
+        for (Map.Entry<Long, Integer> entry : ordered.entrySet()) {
+            // Hisoblagich olinishidan oldin pending: shundan keyin ekilgan har qanday hisoblagich bu zaxirani
+            // allaqachon ayirgan, kamaytirish esa eski (evict qilingan) hisoblagichga tushsa ham ortiqcha sotilmaydi
+            pendingCounter(entry.getKey()).addAndGet(entry.getValue());
+            AtomicInteger counter = shard(entry.getKey()).available.get(entry.getKey());
+            if (counter == null) {
+                pendingCounter(entry.getKey()).addAndGet(-entry.getValue());
+                rollback(reserved);
+                return ReservationOutcome.notLoaded(entry.getKey());
+            }
+            if (!tryDecrement(counter, entry.getValue())) {
+                pendingCounter(entry.getKey()).addAndGet(-entry.getValue());
+                rollback(reserved);
+                return ReservationOutcome.insufficientStock(entry.getKey());
+            }
+            reserved.add(entry);
+        }
+        return ReservationOutcome.RESERVED;
+    }
+
+    @Override
+    public void initialize(Map<Long, Integer> stockByProductId) {
+        stockByProductId.forEach((productId, stock) -> {
+            Shard shard = shard(productId);
+            shard.available.computeIfAbsent(productId, id -> {
+                AtomicInteger pending = shard.pending.get(id);
+                return new AtomicInteger(stock - (pending == null ? 0 : pending.get()));
+            });
+        });
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            AtomicInteger counter = shard(productId).available.get(productId);
+            if (counter != null) {
+                counter.addAndGet(quantity);
+            }
+            pendingCounter(productId).addAndGet(-quantity);
+        });
+    }
+
+    @Override
+    public void evict(Long productId) {
+        shard(productId).available.remove(productId);
+    }
+
+    /**
+     * Only ever called by one flusher at a time, like {@link #acknowledge}.
+     */
+    @Override
+    public Optional<PendingStockBatch> drainPending() {
+        Map<Long, Integer> drained = new HashMap<>();
+        for (Shard shard : shards) {
+            shard.pending.forEach((productId, pending) -> {
+                // Pending nolga tushirilmaydi: partiya bazaga yozilguncha initialize uni hisobga olishi kerak
+                AtomicInteger inBatches = shard.drained.computeIfAbsent(productId, id -> new AtomicInteger());
+                int delta = pending.get() - inBatches.get();
+                if (delta != 0) {
+                    inBatches.addAndGet(delta);
+                    drained.put(productId, delta);
+                }
+            });
+        }
+        if (drained.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new PendingStockBatch(UUID.randomUUID().toString(), drained));
+    }
+
+    /**
+     * Nothing survives a restart of this JVM, so there is never anything to replay.
+     */
+    @Override
+    public List<PendingStockBatch> findUnacknowledged() {
+        return List.of();
+    }
+
+    @Override
+    public void acknowledge(PendingStockBatch batch) {
+        batch.reservedByProductId().forEach((productId, quantity) -> {
+            Shard shard = shard(productId);
+            pendingCounter(productId).addAndGet(-quantity);
+            shard.drained.get(productId).addAndGet(-quantity);
+        });
+    }
+
+    private static boolean tryDecrement(AtomicInteger counter, int quantity) {
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private void rollback(List<Map.Entry<Long, Integer>> reserved) {
+        for (Map.Entry<Long, Integer> entry : reserved) {
+            AtomicInteger counter = shard(entry.getKey()).available.get(entry.getKey());
+            if (counter != null) {
+                counter.addAndGet(entry.getValue());
+            }
+            pendingCounter(entry.getKey()).addAndGet(-entry.getValue());
+        }
+    }
+
+    private AtomicInteger pendingCounter(Long productId) {
+        return shard(productId).pending.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+
+    private Shard shard(Long productId) {
+        return shards[Math.floorMod(productId, shards.length)];
+    }
+
+    private static final class Shard {
+        private final ConcurrentHashMap<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+        // Bazaga hali yozilmagan jami delta, shu jumladan olingan, lekin tasdiqlanmagan partiyalardagisi
+        private final ConcurrentHashMap<Long, AtomicInteger> pending = new ConcurrentHashMap<>();
+        // pending'ning tasdiqlanmagan partiyalarga allaqachon kirgan qismi
+        private final ConcurrentHashMap<Long, AtomicInteger> drained = new ConcurrentHashMap<>();
+    }
+}
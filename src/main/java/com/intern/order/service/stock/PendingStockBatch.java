@@ -0,0 +1,11 @@
+package com.intern.order.service.stock;
+
+import java.util.Map;
+
+/**
+ * Net quantities reserved since the previous flush that are not yet reflected in products.stock.
+ * @param batchId unique ID, recorded in stock_flush_batches when the batch is applied
+ * @param reservedByProductId net reserved quantity (negative if more was released than reserved)
+ */
+public record PendingStockBatch(String batchId, Map<Long, Integer> reservedByProductId) {
+}
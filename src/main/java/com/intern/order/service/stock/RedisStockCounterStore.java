@@ -0,0 +1,199 @@
+package com.intern.order.service.stock;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Cluster-wide counters in Redis. Each operation is one Lua script, so a whole cart is reserved
+ * atomically in a single round trip and pending deltas are recorded in the same step.
+ * All keys share the {@code {stock}} hash tag so the scripts also work on Redis Cluster.
+ */
+public class RedisStockCounterStore implements StockCounterStore {
+
+    private static final String KEY_PREFIX = "{stock}:";
+    private static final String PENDING_KEY = KEY_PREFIX + "pending";
+    private static final String FLUSHING_KEY_PREFIX = KEY_PREFIX + "flushing:";
+    // Set of the flushing:<batchId> keys not acknowledged yet, read by INITIALIZE
+    private static final String FLUSHING_INDEX_KEY = KEY_PREFIX + "flushing-batches";
+
+    // KEYS[1] = pending, KEYS[2..n+1] = counters; ARGV[1..n] = product IDs, ARGV[n+1..2n] = quantities.
+    // 0 = reserved, -i = counter i is not loaded, i = counter i has too little stock
+    private static final RedisScript<Long> RESERVE = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            for i = 1, n do
+                local current = redis.call('GET', KEYS[i + 1])
+                if not current then
+                    return -i
+                end
+                if tonumber(current) < tonumber(ARGV[n + i]) then
+                    return i
+                end
+            end
+            for i = 1, n do
+                redis.call('DECRBY', KEYS[i + 1], ARGV[n + i])
+                redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[n + i])
+            end
+            return 0
+            """, Long.class);
+
+    // Same layout as RESERVE plus KEYS[n+2] = flushing index, with database stock levels in place of quantities.
+    // Batches being flushed (or waiting for a retry) are not in products.stock yet either, so they are subtracted too.
+    private static final RedisScript<Long> INITIALIZE = new DefaultRedisScript<>("""
+            local n = #KEYS - 2
+            local batches = redis.call('SMEMBERS', KEYS[n + 2])
+            for i = 1, n do
+                local unapplied = tonumber(redis.call('HGET', KEYS[1], ARGV[i]) or '0')
+                for _, batch in ipairs(batches) do
+                    unapplied = unapplied + tonumber(redis.call('HGET', batch, ARGV[i]) or '0')
+                end
+                redis.call('SET', KEYS[i + 1], tonumber(ARGV[n + i]) - unapplied, 'NX')
+            end
+            return n
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            for i = 1, n do
+                if redis.call('EXISTS', KEYS[i + 1]) == 1 then
+                    redis.call('INCRBY', KEYS[i + 1], ARGV[n + i])
+                end
+                redis.call('HINCRBY', KEYS[1], ARGV[i], -tonumber(ARGV[n + i]))
+            end
+            return n
+            """, Long.class);
+
+    // KEYS[1] = pending, KEYS[2] = flushing key for the new batch, KEYS[3] = flushing index
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {}
+            end
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            redis.call('SADD', KEYS[3], KEYS[2])
+            return redis.call('HGETALL', KEYS[2])
+            """, List.class);
+
+    // KEYS[1] = flushing key of the batch, KEYS[2] = flushing index
+    private static final RedisScript<Long> ACKNOWLEDGE = new DefaultRedisScript<>("""
+            redis.call('SREM', KEYS[2], KEYS[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisStockCounterStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public ReservationOutcome tryReserve(Map<Long, Integer> quantitiesByProductId) {
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantitiesByProductId).keySet());
+        Long result = redisTemplate.execute(RESERVE, keys(productIds), args(productIds, quantitiesByProductId));
+
+        if (result == null || result == 0) {
+            return ReservationOutcome.RESERVED;
+        }
+        if (result < 0) {
+            return ReservationOutcome.notLoaded(productIds.get((int) -result - 1));
+        }
+        return ReservationOutcome.insufficientStock(productIds.get((int) (result - 1)));
+    }
+
+    @Override
+    public void initialize(Map<Long, Integer> stockByProductId) {
+        if (stockByProductId.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(stockByProductId.keySet());
+        List<String> keys = keys(productIds);
+        keys.add(FLUSHING_INDEX_KEY);
+        redisTemplate.execute(INITIALIZE, keys, args(productIds, stockByProductId));
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(quantitiesByProductId.keySet());
+        redisTemplate.execute(RELEASE, keys(productIds), args(productIds, quantitiesByProductId));
+    }
+
+    @Override
+    public void evict(Long productId) {
+        redisTemplate.delete(counterKey(productId));
+    }
+
+    @Override
+    public Optional<PendingStockBatch> drainPending() {
+        String batchId = UUID.randomUUID().toString();
+        List<?> flat = redisTemplate.execute(DRAIN, List.of(PENDING_KEY, FLUSHING_KEY_PREFIX + batchId, FLUSHING_INDEX_KEY));
+        if (flat == null || flat.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (int i = 0; i < flat.size(); i += 2) {
+            int delta = Integer.parseInt(flat.get(i + 1).toString());
+            if (delta != 0) {
+                reserved.put(Long.valueOf(flat.get(i).toString()), delta);
+            }
+        }
+        return Optional.of(new PendingStockBatch(batchId, reserved));
+    }
+
+    /**
+     * Includes batches that another live instance is flushing right now; applying those again is
+     * harmless because every batch ID can be recorded in stock_flush_batches only once.
+     */
+    @Override
+    public List<PendingStockBatch> findUnacknowledged() {
+        List<PendingStockBatch> batches = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(FLUSHING_KEY_PREFIX + "*").count(100).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            keys.forEachRemaining(key -> {
+                Map<Long, Integer> reserved = new HashMap<>();
+                redisTemplate.<String, String>opsForHash().entries(key).forEach((productId, delta) ->
+                        reserved.put(Long.valueOf(productId), Integer.valueOf(delta)));
+                batches.add(new PendingStockBatch(key.substring(FLUSHING_KEY_PREFIX.length()), reserved));
+            });
+        }
+        return batches;
+    }
+
+    @Override
+    public void acknowledge(PendingStockBatch batch) {
+        redisTemplate.execute(ACKNOWLEDGE, List.of(FLUSHING_KEY_PREFIX + batch.batchId(), FLUSHING_INDEX_KEY));
+    }
+
+    private static List<String> keys(List<Long> productIds) {
+        List<String> keys = new ArrayList<>(productIds.size() + 2);
+        keys.add(PENDING_KEY);
+        productIds.forEach(productId -> keys.add(counterKey(productId)));
+        return keys;
+    }
+
+    private static Object[] args(List<Long> productIds, Map<Long, Integer> values) {
+        Object[] args = new Object[productIds.size() * 2];
+        for (int i = 0; i < productIds.size(); i++) {
+            args[i] = productIds.get(i).toString();
+            args[productIds.size() + i] = values.get(productIds.get(i)).toString();
+        }
+        return args;
+    }
+
+    private static String counterKey(Long productId) {
+        return KEY_PREFIX + "available:" + productId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.intern.order.service.stock;
+
+/**
+ * Result of {@link StockCounterStore#tryReserve}.
+ * @param status what happened
+ * @param productId the product that caused a non-{@code RESERVED} status, otherwise {@code null}
+ */
+public record ReservationOutcome(Status status, Long productId) {
+
+    public enum Status {
+        RESERVED,
+        INSUFFICIENT_STOCK,
+        NOT_LOADED
+    }
+
+    static final ReservationOutcome RESERVED = new ReservationOutcome(Status.RESERVED, null);
+
+    static ReservationOutcome insufficientStock(Long productId) {
+        return new ReservationOutcome(Status.INSUFFICIENT_STOCK, productId);
+    }
+
+    static ReservationOutcome notLoaded(Long productId) {
+        return new ReservationOutcome(Status.NOT_LOADED, productId);
+    }
+}
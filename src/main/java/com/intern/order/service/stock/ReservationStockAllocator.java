@@ -0,0 +1,170 @@
+package com.intern.order.service.stock;
+
+import com.intern.order.entity.StockFlushBatch;
+import com.intern.order.exception.InsufficientStockException;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.repository.StockFlushBatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reservation mode: checkouts only touch the {@link StockCounterStore}; the net reserved quantity per
+ * product is written to products.stock in one set-based UPDATE per flush interval.
+ * <p>
+ * Between flushes products.stock lags behind the counters. Every applied batch is recorded in
+ * stock_flush_batches in the same transaction as the UPDATE, which makes replaying a batch after a
+ * crash safe. On startup, batches left behind by a previous run are replayed (reconciliation).
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReservationStockAllocator implements StockAllocator {
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final StockCounterStore counterStore;
+    private final ProductRepository productRepository;
+    private final StockFlushBatchRepository flushBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Deque<PendingStockBatch> failedBatches = new ArrayDeque<>();
+
+    @Override
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+            ReservationOutcome outcome = counterStore.tryReserve(quantitiesByProductId);
+            switch (outcome.status()) {
+                case RESERVED -> {
+                    // Counters are outside the DB transaction: give the stock back if the order is rolled back
+                    afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK,
+                            () -> counterStore.release(quantitiesByProductId));
+                    return;
+                }
+                case INSUFFICIENT_STOCK -> throw new InsufficientStockException(
+                        "Not enough stock for product id: " + outcome.productId() +
+                                ". Requested: " + quantitiesByProductId.get(outcome.productId()));
+                case NOT_LOADED -> loadCounters(quantitiesByProductId);
+            }
+        }
+        throw new IllegalStateException("Could not load stock counters for products: " + quantitiesByProductId.keySet());
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        afterCompletion(TransactionSynchronization.STATUS_COMMITTED,
+                () -> counterStore.release(quantitiesByProductId));
+    }
+
+    /**
+     * The next reservation re-reads the product's stock from the database. Pending deltas for the
+     * product are still flushed, i.e. an admin-entered stock value does not include reservations
+     * made since the last flush.
+     */
+    @Override
+    public void invalidate(Long productId) {
+        counterStore.evict(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.flush-interval:1s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!failedBatches.isEmpty()) {
+                if (!apply(failedBatches.peekFirst())) {
+                    return;
+                }
+                failedBatches.pollFirst();
+            }
+            counterStore.drainPending().ifPresent(batch -> {
+                if (!apply(batch)) {
+                    failedBatches.addLast(batch);
+                }
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(status ->
+                flushBatchRepository.deleteFlushedBefore(LocalDateTime.now().minusDays(1)));
+
+        var leftovers = counterStore.findUnacknowledged();
+        if (!leftovers.isEmpty()) {
+            log.warn("Replaying {} stock batch(es) left unflushed by a previous run", leftovers.size());
+        }
+        for (PendingStockBatch batch : leftovers) {
+            apply(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Runs the action when the surrounding transaction ends with the given status,
+     * or right away if there is no transaction.
+     */
+    private static void afterCompletion(int status, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus == status) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void loadCounters(Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> stockByProductId = new HashMap<>();
+        productRepository.findStockLevels(quantitiesByProductId.keySet())
+                .forEach(level -> stockByProductId.put(level.getId(), level.getStock()));
+        counterStore.initialize(stockByProductId);
+    }
+
+    private boolean apply(PendingStockBatch batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (flushBatchRepository.existsById(batch.batchId())) {
+                    return;
+                }
+                Map<Long, Integer> deltas = new HashMap<>();
+                batch.reservedByProductId().forEach((productId, reserved) -> deltas.put(productId, -reserved));
+                productRepository.addStock(deltas);
+                flushBatchRepository.save(StockFlushBatch.builder()
+                        .batchId(batch.batchId())
+                        .flushedAt(LocalDateTime.now())
+                        .build());
+            });
+            counterStore.acknowledge(batch);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to flush stock batch {}, will retry", batch.batchId(), e);
+            return false;
+        }
+    }
+}
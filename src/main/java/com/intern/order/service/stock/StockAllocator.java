@@ -0,0 +1,46 @@
+package com.intern.order.service.stock;
+
+import com.intern.order.exception.InsufficientStockException;
+
+import java.util.Map;
+
+/**
+ * Takes stock for orders and gives it back. The implementation is chosen by {@code app.stock.mode}.
+ */
+public interface StockAllocator {
+
+    /**
+     * Reserves every requested quantity, or none of them.
+     * @param quantitiesByProductId quantity to reserve, keyed by product ID
+     * @throws InsufficientStockException if any product does not have enough stock
+     */
+    void reserve(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Like {@link #reserve}, but reports a shortage instead of throwing and leaves nothing half-applied in the
+     * current transaction, so the caller can carry on in it (e.g. retry with fewer orders).
+     * The default relies on {@link #reserve} changing nothing when it throws.
+     * @return {@code false} if any product does not have enough stock; nothing was reserved then
+     */
+    default boolean tryReserve(Map<Long, Integer> quantitiesByProductId) {
+        try {
+            reserve(quantitiesByProductId);
+            return true;
+        } catch (InsufficientStockException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns previously reserved quantities to stock (e.g. when an order is cancelled).
+     * @param quantitiesByProductId quantity to return, keyed by product ID
+     */
+    void release(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Called after a product's stock was overwritten or the product was deleted outside of this allocator.
+     * @param productId the changed product
+     */
+    default void invalidate(Long productId) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.intern.order.service.stock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Available-stock counters plus the net reserved deltas that still have to be flushed to the database.
+ */
+public interface StockCounterStore {
+
+    /**
+     * Atomically reserves every quantity or none of them, without locks.
+     */
+    ReservationOutcome tryReserve(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Seeds counters that are not loaded yet. The seeded value is the database stock minus
+     * whatever is not applied to it yet for that product: pending deltas, and batches that were drained but
+     * not acknowledged (being flushed or waiting for a retry). Counters that already exist are left alone.
+     * @param stockByProductId stock as currently stored in the products table
+     */
+    void initialize(Map<Long, Integer> stockByProductId);
+
+    void release(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Drops a counter so it is re-read from the database on next use.
+     */
+    void evict(Long productId);
+
+    /**
+     * Takes every pending delta out of the store as one batch.
+     * @return the batch, or empty if nothing was reserved or released since the last drain
+     */
+    Optional<PendingStockBatch> drainPending();
+
+    /**
+     * Batches that were drained but never acknowledged, e.g. because the instance died mid-flush.
+     */
+    List<PendingStockBatch> findUnacknowledged();
+
+    /**
+     * Forgets a batch once it has been applied to the database.
+     */
+    void acknowledge(PendingStockBatch batch);
+}
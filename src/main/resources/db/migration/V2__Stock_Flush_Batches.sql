@@ -0,0 +1,8 @@
+-- IF NOT EXISTS: Flyway ishlamagan paytda bu jadvalni Hibernate (ddl-auto: update) yaratib qo'ygan bo'lishi mumkin
+CREATE TABLE IF NOT EXISTS stock_flush_batches
+(
+    batch_id   VARCHAR(64) PRIMARY KEY,
+    flushed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_flush_batches_flushed_at ON stock_flush_batches (flushed_at);
@@ -0,0 +1,5 @@
+-- GET /api/orders/page va /export uchun: (order_date DESC, id DESC) bo'yicha keyset pagination
+CREATE INDEX IF NOT EXISTS idx_orders_order_date_id ON orders (order_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_order_date_id ON orders (status, order_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
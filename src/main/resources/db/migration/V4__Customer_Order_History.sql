@@ -0,0 +1,35 @@
+-- GET /api/orders/customer/{email} uchun read model: har bir buyurtma uchun bitta qator, elementlari bilan birga.
+-- IF NOT EXISTS / ON CONFLICT: jadvalni Hibernate (ddl-auto: update) oldinroq yaratib, qisman to'ldirgan bo'lishi mumkin
+CREATE TABLE IF NOT EXISTS customer_order_history
+(
+    order_id       BIGINT PRIMARY KEY REFERENCES orders (id),
+    customer_email VARCHAR(255)   NOT NULL,
+    customer_name  VARCHAR(255)   NOT NULL,
+    order_date     TIMESTAMP      NOT NULL,
+    status         VARCHAR(20)    NOT NULL,
+    total_amount   DECIMAL(12, 2) NOT NULL,
+    order_items    JSONB          NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_customer_order_history_email_date
+    ON customer_order_history (customer_email, order_date DESC, order_id DESC);
+
+-- Mavjud buyurtmalarni read model'ga ko'chirish
+INSERT INTO customer_order_history (order_id, customer_email, customer_name, order_date, status, total_amount, order_items)
+SELECT o.id,
+       o.customer_email,
+       o.customer_name,
+       o.order_date,
+       o.status,
+       o.total_amount,
+       COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                                          'productId', i.product_id,
+                                          'productName', p.name,
+                                          'quantity', i.quantity,
+                                          'unitPrice', i.unit_price,
+                                          'totalPrice', i.total_price) ORDER BY i.id)
+                 FROM order_items i
+                          JOIN products p ON p.id = i.product_id
+                 WHERE i.order_id = o.id), '[]'::jsonb)
+FROM orders o
+ON CONFLICT (order_id) DO NOTHING;
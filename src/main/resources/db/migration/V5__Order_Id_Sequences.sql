@@ -0,0 +1,9 @@
+-- orders va order_items ID'lari endi pooled sequence'dan olinadi (allocationSize = 50), bu JDBC batch insert'ga imkon beradi.
+-- Hibernate nextval natijasini blokning oxirgi ID'si deb hisoblaydi, shuning uchun sequence MAX(id) + 50 dan boshlanadi.
+-- IF NOT EXISTS: Flyway ishlamagan paytda sequence'ni Hibernate (ddl-auto: update) 1 dan boshlab yaratgan bo'lishi mumkin.
+-- last_value ham hisobga olinadi: ishlab turgan boshqa instansiya olgan blok qayta berilmaydi.
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('orders_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM orders), (SELECT last_value FROM orders_seq)) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('order_items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM order_items), (SELECT last_value FROM order_items_seq)) + 50, false);
@@ -0,0 +1,7 @@
+-- GET /api/products/search uchun: ILIKE '%x%' trigram GIN indeksidan, so'zlar bo'yicha qidiruv to_tsvector indeksidan foydalanadi.
+-- Ifodalar ProductRepositoryCustomImpl.searchPostgres dagi bilan bir xil bo'lishi shart.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_category_trgm ON products USING GIN (category gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_name_fts ON products USING GIN (to_tsvector('simple', name));
@@ -0,0 +1,3 @@
+-- POST /api/auth/users/{username}/revoke: shu vaqtdan oldin berilgan tokenlar CACHED rejimida rad etiladi.
+-- IF NOT EXISTS: Flyway ishlamagan paytda ustunni Hibernate (ddl-auto: update) qo'shgan bo'lishi mumkin
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after TIMESTAMP;
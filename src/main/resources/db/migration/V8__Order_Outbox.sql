@@ -0,0 +1,11 @@
+-- app.orders.intake.mode=async: POST /api/orders buyurtmani RECEIVED holatida shu jadvaldagi yozuv bilan birga saqlaydi.
+-- OrderIntakeWorker yozuvlarni id tartibida partiyalab oladi (FOR UPDATE SKIP LOCKED), zaxirani band qiladi va yozuvni o'chiradi;
+-- buning uchun primary key indeksi yetarli. IF NOT EXISTS: Hibernate (ddl-auto: update) ularni oldinroq yaratgan bo'lishi mumkin.
+CREATE SEQUENCE IF NOT EXISTS order_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_outbox
+(
+    id         BIGINT PRIMARY KEY,
+    order_id   BIGINT    NOT NULL UNIQUE REFERENCES orders (id),
+    created_at TIMESTAMP NOT NULL
+);
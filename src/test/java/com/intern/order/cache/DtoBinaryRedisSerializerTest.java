@@ -0,0 +1,114 @@
+package com.intern.order.cache;
+
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.ProductResponse;
+import com.intern.order.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DtoBinaryRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final DtoBinaryRedisSerializer serializer = new DtoBinaryRedisSerializer(jsonSerializer);
+
+    @Test
+    void roundTrip_shouldRestoreProductsAndOrders() {
+        ProductResponse product = product(1L, "Laptop");
+        OrderResponse order = OrderResponse.builder()
+                .id(7L)
+                .customerName("Ali Valiyev")
+                .customerEmail("ali@example.com")
+                .orderDate(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000))
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("2599.98"))
+                .orderItems(List.of(new OrderItemResponse(1L, "Laptop", 2, new BigDecimal("1299.99"), new BigDecimal("2599.98"))))
+                .build();
+
+        assertThat(serializer.deserialize(serializer.serialize(product))).isEqualTo(product);
+        assertThat(serializer.deserialize(serializer.serialize(order))).isEqualTo(order);
+        assertThat(serializer.deserialize(serializer.serialize(List.of(product, product(2L, "Mouse")))))
+                .isEqualTo(List.of(product, product(2L, "Mouse")));
+        assertThat(serializer.deserialize(serializer.serialize("generation-token"))).isEqualTo("generation-token");
+    }
+
+    @Test
+    void roundTrip_shouldKeepNullFields() {
+        ProductResponse product = ProductResponse.builder().id(3L).build();
+        OrderResponse order = OrderResponse.builder().id(4L).build();
+
+        assertThat(serializer.deserialize(serializer.serialize(product))).isEqualTo(product);
+        assertThat(serializer.deserialize(serializer.serialize(order))).isEqualTo(order);
+    }
+
+    @Test
+    void serialize_shouldBeSmallerThanJson() {
+        ProductResponse product = product(1L, "Laptop");
+
+        assertThat(serializer.serialize(product).length).isLessThan(jsonSerializer.serialize(product).length);
+    }
+
+    @Test
+    void serialize_shouldFallBackToJsonForOtherTypes() {
+        Map<String, Object> value = Map.of("key", "value");
+
+        assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+    }
+
+    @Test
+    void deserialize_whenSchemaVersionDiffers_shouldReturnNull() {
+        byte[] bytes = serializer.serialize(product(1L, "Laptop"));
+        bytes[1] = (byte) (DtoBinaryRedisSerializer.SCHEMA_VERSION + 1);
+
+        assertThat(serializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void deserialize_whenOrderStatusIsUnknown_shouldReturnNull() {
+        OrderResponse order = OrderResponse.builder().id(7L).status(OrderStatus.CONFIRMED).build();
+        // Yangiroq instansiya qo'shgan, shu instansiyaga noma'lum holat (uzunligi bir xil, shuning uchun joyida almashtiriladi)
+        byte[] single = replace(serializer.serialize(order), "CONFIRMED", "ARCHIVED_");
+        byte[] list = replace(serializer.serialize(List.of(order)), "CONFIRMED", "ARCHIVED_");
+
+        assertThat(serializer.deserialize(single)).isNull();
+        assertThat(serializer.deserialize(list)).isNull();
+    }
+
+    @Test
+    void deserialize_whenValueWasWrittenAsJson_shouldReturnNull() {
+        // Eski (faqat JSON) versiya yozib qoldirgan qiymat
+        assertThat(serializer.deserialize(jsonSerializer.serialize(product(1L, "Laptop")))).isNull();
+    }
+
+    private static byte[] replace(byte[] bytes, String from, String to) {
+        byte[] target = from.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + target.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + target.length, target, 0, target.length)) {
+                System.arraycopy(to.getBytes(StandardCharsets.UTF_8), 0, bytes, i, target.length);
+                return bytes;
+            }
+        }
+        throw new IllegalArgumentException(from + " not found");
+    }
+
+    private static ProductResponse product(Long id, String name) {
+        return ProductResponse.builder()
+                .id(id)
+                .name(name)
+                .price(new BigDecimal("1299.99"))
+                .stock(10)
+                .category("Electronics")
+                .isActive(true)
+                .createdAt(LocalDateTime.of(2024, 1, 15, 9, 0))
+                .build();
+    }
+}
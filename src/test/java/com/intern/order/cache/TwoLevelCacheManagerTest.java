@@ -0,0 +1,140 @@
+package com.intern.order.cache;
+
+import com.intern.order.config.NearCacheProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ikki "instance"ni bitta embedded Redis ustida ishga tushirib, near tier va pub/sub orqali invalidatsiyani tekshiradi.
+ */
+class TwoLevelCacheManagerTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private Node first;
+    private Node second;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        first = new Node();
+        second = new Node();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromNearTier() {
+        first.cache().put(1L, "Laptop");
+
+        assertThat(second.cache().get(1L, String.class)).isEqualTo("Laptop");
+
+        // Redis'dagi qiymat o'chirilsa ham, near tier'dagi nusxa qaytariladi
+        redisTemplate.delete(redisTemplate.keys("products::*"));
+        assertThat(second.cache().get(1L, String.class)).isEqualTo("Laptop");
+    }
+
+    @Test
+    void put_shouldInvalidateNearCopiesOnOtherInstances() {
+        first.cache().put(1L, "Laptop");
+        assertThat(second.cache().get(1L, String.class)).isEqualTo("Laptop");
+
+        first.cache().put(1L, "Gaming Laptop");
+
+        awaitTrue(() -> "Gaming Laptop".equals(second.cache().get(1L, String.class)));
+    }
+
+    @Test
+    void evict_shouldInvalidateNearCopiesOnOtherInstances() {
+        first.cache().put(1L, "Laptop");
+        assertThat(second.cache().get(1L, String.class)).isEqualTo("Laptop");
+
+        first.cache().evict(1L);
+
+        awaitTrue(() -> second.cache().get(1L) == null);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Node {
+
+        private final TwoLevelCacheManager cacheManager;
+        private final RedisMessageListenerContainer listenerContainer;
+
+        Node() {
+            NearCacheProperties properties = new NearCacheProperties();
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                    .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().disableCachingNullValues())
+                    .build();
+            redisCacheManager.afterPropertiesSet();
+            cacheManager = new TwoLevelCacheManager(redisCacheManager, properties, redisTemplate);
+            cacheManager.afterPropertiesSet();
+
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(cacheManager, new ChannelTopic(properties.getInvalidationChannel()));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+        }
+
+        Cache cache() {
+            return cacheManager.getCache("products");
+        }
+
+        void stop() throws Exception {
+            listenerContainer.destroy();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.intern.order.concurrency;
+
+import com.intern.order.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+    @Test
+    void tryAcquire_whenLimitIsReached_shouldRejectAndCount() {
+        AdaptiveConcurrencyLimit limit = limit(2);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+        assertThat(limit.getRejected()).isEqualTo(1);
+
+        limit.releaseWithoutSample();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void release_whenLatencyIsStableAndLimitIsUsed_shouldGrowTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        for (int i = 0; i < 10; i++) {
+            runWindow(limit, limit.getLimit(), Duration.ofMillis(10));
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void release_whenLatencyRises_shouldShrinkTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(40);
+        for (int i = 0; i < 5; i++) {
+            runWindow(limit, limit.getLimit(), Duration.ofMillis(10));
+        }
+        int before = limit.getLimit();
+
+        // Baza sekinlashdi: so'rovlar ulanish kutib qolmoqda
+        for (int i = 0; i < 20; i++) {
+            runWindow(limit, limit.getLimit(), Duration.ofMillis(200));
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    void release_whenLimitIsMostlyUnused_shouldKeepTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(40);
+
+        for (int i = 0; i < 10; i++) {
+            runWindow(limit, 5, Duration.ofMillis(10));
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    void release_whenRequestsFailWithServerErrors_shouldBackOffToTheMinimum() {
+        AdaptiveConcurrencyLimit limit = limit(40);
+
+        for (int i = 0; i < 50; i++) {
+            runWindow(limit, limit.getLimit(), Duration.ofMillis(10), true);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    /**
+     * Runs {@code concurrency} requests side by side for one sample window, each taking {@code rtt}.
+     */
+    private void runWindow(AdaptiveConcurrencyLimit limit, int concurrency, Duration rtt) {
+        runWindow(limit, concurrency, rtt, false);
+    }
+
+    private void runWindow(AdaptiveConcurrencyLimit limit, int concurrency, Duration rtt, boolean overloaded) {
+        int admitted = 0;
+        for (int i = 0; i < Math.max(concurrency, properties.getMinWindowSamples()); i++) {
+            if (limit.tryAcquire()) {
+                admitted++;
+            }
+        }
+        clock.addAndGet(properties.getSampleWindow().toNanos());
+        for (int i = 0; i < admitted; i++) {
+            limit.release(rtt.toNanos(), overloaded);
+        }
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initialLimit) {
+        ConcurrencyLimitProperties.EndpointClass endpointClass = new ConcurrencyLimitProperties.EndpointClass();
+        endpointClass.setName("checkout");
+        endpointClass.setPaths(List.of("/api/orders"));
+        endpointClass.setInitialLimit(initialLimit);
+        endpointClass.setMinLimit(2);
+        endpointClass.setMaxLimit(200);
+        return new AdaptiveConcurrencyLimit(endpointClass, properties, clock::get);
+    }
+}
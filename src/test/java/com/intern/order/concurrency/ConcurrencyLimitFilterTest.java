@@ -0,0 +1,92 @@
+package com.intern.order.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties.EndpointClass checkout = new ConcurrencyLimitProperties.EndpointClass();
+        checkout.setName("checkout");
+        checkout.setMethod("POST");
+        checkout.setPaths(List.of("/api/orders"));
+        checkout.setInitialLimit(1);
+        checkout.setMinLimit(1);
+
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setClasses(List.of(checkout));
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void doFilter_whenClassIsAtItsLimit_shouldRejectWith503AndExportMetrics() throws Exception {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        // Birinchi so'rov hali ishlayotganda ikkinchisi keladi
+        MockFilterChain slowChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                assertThat(meterRegistry.get("concurrency.in.flight").tag("class", "checkout").gauge().value()).isEqualTo(1);
+                nested[0] = perform("POST", "/api/orders");
+            }
+        });
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"), first, slowChain);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("concurrency.rejected").tag("class", "checkout").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("concurrency.limit").tag("class", "checkout").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("concurrency.in.flight").tag("class", "checkout").gauge().value()).isZero();
+
+        assertThat(perform("POST", "/api/orders").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_whenNoClassMatches_shouldNotLimit() {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        MockFilterChain slowChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                nested[0] = perform("GET", "/api/orders");
+            }
+        });
+
+        perform("GET", "/api/orders", slowChain);
+
+        assertThat(nested[0].getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse perform(String method, String path) {
+        return perform(method, path, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse perform(String method, String path, MockFilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, path), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,176 @@
+package com.intern.order.controller;
+
+import com.intern.order.entity.User;
+import com.intern.order.enums.Role;
+import com.intern.order.repository.UserRepository;
+import com.intern.order.security.CachedUser;
+import com.intern.order.security.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tokenni bekor qilishni to'liq zanjir bo'ylab tekshiradi: SecurityConfig qoidalari, "users" keshi
+ * (embedded Redis ustidagi ikki qatlamli kesh) va commit'dan keyingi eviction. Tranzaksiyasiz:
+ * eviction faqat haqiqiy commit'dan keyin ishlaydi.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext // Context Redis'ga ulangan, Redis esa klass oxirida to'xtatiladi
+class AuthControllerIntegrationTest {
+
+    private static RedisServer redisServer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User admin;
+    private User user;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> port);
+        registry.add("app.jwt.user-lookup", () -> "cached");
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        admin = saveUser("revoking-admin", Role.ROLE_ADMIN);
+        user = saveUser("revoked-user", Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        usersCache().clear();
+    }
+
+    @Test
+    void revokeTokens_withoutToken_shouldBeRejected() throws Exception {
+        assertRejected(mockMvc.perform(post("/api/auth/users/{username}/revoke", user.getUsername())));
+        assertThat(reload(user).getTokensValidAfter()).isNull();
+    }
+
+    @Test
+    void revokeTokens_asUser_shouldReturn403() throws Exception {
+        mockMvc.perform(post("/api/auth/users/{username}/revoke", admin.getUsername())
+                        .header("Authorization", bearer(user)))
+                .andExpect(status().isForbidden());
+
+        assertThat(reload(admin).getTokensValidAfter()).isNull();
+    }
+
+    @Test
+    void revokeTokens_asAdmin_shouldReturn204AndStoreRevocationTime() throws Exception {
+        mockMvc.perform(post("/api/auth/users/{username}/revoke", user.getUsername())
+                        .header("Authorization", bearer(admin)))
+                .andExpect(status().isNoContent());
+
+        assertThat(reload(user).getTokensValidAfter()).isNotNull();
+    }
+
+    @Test
+    void revokeTokens_inCachedMode_shouldRejectOldTokenOnNextRequest() throws Exception {
+        User target = saveUser("revoked-admin", Role.ROLE_ADMIN);
+        String oldToken = bearer(target);
+        mockMvc.perform(get("/api/orders/page").header("Authorization", oldToken))
+                .andExpect(status().isOk());
+        // Birinchi so'rov foydalanuvchini keshga yozdi; eviction bo'lmasa, eski token qabul qilinaverardi
+        assertThat(usersCache().get(target.getUsername(), CachedUser.class)).isNotNull()
+                .extracting(CachedUser::getTokensValidAfter).isNull();
+
+        mockMvc.perform(post("/api/auth/users/{username}/revoke", target.getUsername())
+                        .header("Authorization", bearer(admin)))
+                .andExpect(status().isNoContent());
+
+        assertThat(usersCache().get(target.getUsername())).isNull();
+        assertRejected(mockMvc.perform(get("/api/orders/page").header("Authorization", oldToken)));
+
+        // Qayta o'qilgan yozuvdagi vaqt bazadagi LocalDateTime bilan bir xil lahzani bildiradi
+        Instant revokedAt = reload(target).getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant();
+        assertThat(usersCache().get(target.getUsername(), CachedUser.class).getTokensValidAfter())
+                .isCloseTo(revokedAt, within(1, ChronoUnit.MILLIS));
+
+        // iat soniya aniqligida: bekor qilingandan keyingi soniyada berilgan token qabul qilinadi
+        Thread.sleep(1100);
+        mockMvc.perform(get("/api/orders/page").header("Authorization", bearer(target)))
+                .andExpect(status().isOk());
+    }
+
+    // Autentifikatsiyasiz so'rov: entry point sozlamasiga qarab 401 yoki 403
+    private static void assertRejected(ResultActions result) {
+        assertThat(result.andReturn().getResponse().getStatus()).isIn(401, 403);
+    }
+
+    private User saveUser(String username, Role role) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode("password"))
+                .role(role)
+                .build());
+    }
+
+    private User reload(User user) {
+        return userRepository.findByUsername(user.getUsername()).orElseThrow();
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    private Cache usersCache() {
+        return cacheManager.getCache("users");
+    }
+}
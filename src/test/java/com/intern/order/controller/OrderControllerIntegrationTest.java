@@ -4,18 +4,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.intern.order.dto.CreateOrderRequest;
 import com.intern.order.dto.OrderItemRequest;
 import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderItem;
 import com.intern.order.entity.Product;
 import com.intern.order.enums.OrderStatus;
 import com.intern.order.repository.OrderRepository;
 import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.events.OrderEventBroadcaster;
+import com.intern.order.service.events.OrderStatusChanged;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -25,8 +31,12 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
@@ -47,6 +57,9 @@ class OrderControllerIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderEventBroadcaster orderEventBroadcaster;
+
     private Product product1;
     private Order order1;
 
@@ -112,6 +125,47 @@ class OrderControllerIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void createOrder_withRepeatedIdempotencyKey_shouldCreateOnlyOneOrder() throws Exception {
+        OrderItemRequest itemRequest = new OrderItemRequest();
+        itemRequest.setProductId(product1.getId());
+        itemRequest.setQuantity(2);
+
+        CreateOrderRequest orderRequest = new CreateOrderRequest();
+        orderRequest.setCustomerName("Jane Doe");
+        orderRequest.setCustomerEmail("jane.doe@example.com");
+        orderRequest.setOrderItems(List.of(itemRequest));
+        String body = objectMapper.writeValueAsString(orderRequest);
+        String key = "retry-" + System.nanoTime();
+
+        MvcResult first = mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        Integer orderId = JsonPath.read(first.getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(orderId)));
+
+        assertEquals(8, productRepository.findById(product1.getId()).orElseThrow().getStock());
+        assertEquals(2, orderRepository.count());
+
+        orderRequest.getOrderItems().get(0).setQuantity(3);
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void getOrderById_whenOrderExists_shouldReturn200OK() throws Exception {
         mockMvc.perform(get("/api/orders/" + this.order1.getId()))
@@ -128,6 +182,32 @@ class OrderControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].id", is(this.order1.getId().intValue())));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getOrdersPage_shouldReturnPageWithCursor() throws Exception {
+        orderRepository.save(Order.builder()
+                .customerName("Second Customer")
+                .customerEmail("second@example.com")
+                .orderDate(this.order1.getOrderDate().minusDays(1))
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .build());
+
+        mockMvc.perform(get("/api/orders/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(this.order1.getId().intValue())))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor").exists());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getOrdersPage_withInvalidCursor_shouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateOrderStatus_whenOrderIsPending_shouldReturn200OK() throws Exception {
         mockMvc.perform(put("/api/orders/{id}/status", this.order1.getId())
@@ -137,15 +217,62 @@ class OrderControllerIntegrationTest {
     }
 
     @Test
-    void updateOrderStatus_whenOrderIsNotPending_shouldReturn400BadRequest() throws Exception {
+    void updateOrderStatus_whenTransitionIsNotAllowed_shouldReturn400BadRequest() throws Exception {
         this.order1.setStatus(OrderStatus.CONFIRMED);
         orderRepository.save(this.order1);
 
         mockMvc.perform(put("/api/orders/{id}/status", this.order1.getId())
-                        .param("status", "SHIPPED"))
+                        .param("status", "PENDING"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateOrderStatus_whenSkippingStates_shouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(put("/api/orders/{id}/status", this.order1.getId())
+                        .param("status", "DELIVERED"))
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void updateOrderStatus_whenOrderIsConfirmed_shouldAllowShipping() throws Exception {
+        this.order1.setStatus(OrderStatus.CONFIRMED);
+        orderRepository.save(this.order1);
+
+        mockMvc.perform(put("/api/orders/{id}/status", this.order1.getId())
+                        .param("status", "SHIPPED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("SHIPPED")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateOrderStatuses_shouldReportOutcomePerOrder() throws Exception {
+        Order shipped = orderRepository.save(Order.builder()
+                .customerName("Shipped Customer")
+                .customerEmail("shipped@example.com")
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.SHIPPED)
+                .totalAmount(new BigDecimal("10.00"))
+                .build());
+        long missingId = shipped.getId() + 1000;
+
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\": [" + this.order1.getId() + ", " + shipped.getId() + ", " + missingId + ", "
+                                + this.order1.getId() + "], \"status\": \"CONFIRMED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(1)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].outcome", is("UPDATED")))
+                .andExpect(jsonPath("$.results[0].previousStatus", is("PENDING")))
+                .andExpect(jsonPath("$.results[1].outcome", is("REJECTED")))
+                .andExpect(jsonPath("$.results[2].outcome", is("NOT_FOUND")));
+
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findStatusById(this.order1.getId()));
+        assertEquals(OrderStatus.SHIPPED, orderRepository.findStatusById(shipped.getId()));
+    }
+
     @Test
     void cancelOrder_shouldUpdateStatusAndReturnStock() throws Exception {
         mockMvc.perform(delete("/api/orders/" + this.order1.getId()))
@@ -154,4 +281,83 @@ class OrderControllerIntegrationTest {
         Order cancelledOrder = orderRepository.findById(this.order1.getId()).get();
         assertEquals(OrderStatus.CANCELLED, cancelledOrder.getStatus());
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void cancelOrders_shouldReturnStockOfCancelledOrdersAndReportTheRest() throws Exception {
+        Order withItems = Order.builder()
+                .customerName("Bulk Customer")
+                .customerEmail("bulk@example.com")
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("2400.00"))
+                .build();
+        withItems.getOrderItems().add(OrderItem.builder()
+                .order(withItems)
+                .product(product1)
+                .quantity(2)
+                .unitPrice(new BigDecimal("1200.00"))
+                .totalPrice(new BigDecimal("2400.00"))
+                .build());
+        withItems = orderRepository.save(withItems);
+        Order delivered = orderRepository.save(Order.builder()
+                .customerName("Delivered Customer")
+                .customerEmail("delivered@example.com")
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.DELIVERED)
+                .totalAmount(new BigDecimal("10.00"))
+                .build());
+
+        mockMvc.perform(post("/api/orders/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\": [" + withItems.getId() + ", " + this.order1.getId() + ", " + delivered.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[0].outcome", is("UPDATED")))
+                .andExpect(jsonPath("$.results[1].outcome", is("UPDATED")))
+                .andExpect(jsonPath("$.results[2].outcome", is("REJECTED")))
+                .andExpect(jsonPath("$.results[2].previousStatus", is("DELIVERED")));
+
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(withItems.getId()));
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(this.order1.getId()));
+        assertEquals(OrderStatus.DELIVERED, orderRepository.findStatusById(delivered.getId()));
+        assertEquals(12, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void streamOrderEvents_shouldPushStatusChangesOfTheRequestedOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/orders/events").param("orderId", this.order1.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        orderEventBroadcaster.statusChanged(new OrderStatusChanged(this.order1.getId() + 1, OrderStatus.CANCELLED));
+        orderEventBroadcaster.statusChanged(new OrderStatusChanged(this.order1.getId(), OrderStatus.SHIPPED));
+
+        String stream = awaitContent(result, "SHIPPED");
+        assertTrue(stream.contains("event:order-status"));
+        assertFalse(stream.contains("CANCELLED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void streamOrderEvents_withUnknownLastEventId_shouldAskForResync() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/orders/events").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertTrue(awaitContent(result, "event:resync").contains("event:resync"));
+    }
+
+    // Hodisalar virtual thread'da yoziladi, shuning uchun javob tanasi biroz kutiladi
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
 }
@@ -165,6 +165,12 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].name", is("Apple iPhone 15")));
     }
 
+    @Test
+    void searchProducts_withTooLargePageSize_shouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/search?name=Apple&size=1000"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Create Product: Should return 400 Bad Request for invalid data")
     void createProduct_withInvalidData_shouldReturn400BadRequest() throws Exception {
@@ -0,0 +1,110 @@
+package com.intern.order.controller;
+
+import com.intern.order.dto.CreateProductRequest;
+import com.intern.order.dto.ProductResponse;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.ProductService;
+import com.intern.order.service.search.ProductSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * app.search.engine=in-memory bilan: indeks haqiqiy tranzaksiyalar commit yoki rollback bo'lgandan keyin
+ * qanday yangilanishini va rebuild endpoint'ini tekshiradi. Tranzaksiyasiz, chunki commit kerak.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = {"app.search.engine=in-memory", "spring.cache.type=simple"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductSearchIndexIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(productService::deleteProduct);
+    }
+
+    @Test
+    void createProduct_shouldReachTheIndexOnlyAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            ProductResponse created = productService.createProduct(request("Committed Gadget"));
+            createdIds.add(created.getId());
+            assertThat(searchIndex.search("committed", null, 0, 10)).isEmpty();
+        });
+
+        assertThat(searchIndex.search("committed", null, 0, 10)).containsExactly(createdIds.get(0));
+    }
+
+    @Test
+    void createProduct_whenTransactionRollsBack_shouldNeverReachTheIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.createProduct(request("Rolledback Gadget"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(productRepository.findAll()).noneMatch(product -> product.getName().equals("Rolledback Gadget"));
+        assertThat(searchIndex.search("rolledback", null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rebuildSearchIndex_asAdmin_shouldReturnStatsOfTheNewIndex() throws Exception {
+        createdIds.add(productService.createProduct(request("Rebuilt Gadget")).getId());
+
+        mockMvc.perform(post("/api/products/search-index/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true))
+                .andExpect(jsonPath("$.products").value((int) productRepository.count()));
+
+        assertThat(searchIndex.search("rebuilt", null, 0, 10)).containsExactly(createdIds.get(0));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void rebuildSearchIndex_asUser_shouldReturn403() throws Exception {
+        mockMvc.perform(post("/api/products/search-index/rebuild"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static CreateProductRequest request(String name) {
+        CreateProductRequest request = new CreateProductRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("10.00"));
+        request.setStock(5);
+        request.setCategory("Gadgets");
+        request.setIsActive(true);
+        return request;
+    }
+}
@@ -0,0 +1,47 @@
+package com.intern.order.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MarkerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    @Test
+    void decide_withRateZero_shouldDropOnlySampledLinesBelowWarn() {
+        SamplingTurboFilter filter = filter(0);
+
+        assertThat(filter.decide(LogMarkers.SAMPLED, null, Level.INFO, "line", null, null)).isEqualTo(FilterReply.DENY);
+        assertThat(filter.decide(LogMarkers.SAMPLED, null, Level.WARN, "line", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, null, Level.INFO, "line", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(MarkerFactory.getMarker("OTHER"), null, Level.INFO, "line", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void decide_withRateOne_shouldKeepEverySampledLine() {
+        SamplingTurboFilter filter = filter(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(filter.decide(LogMarkers.SAMPLED, null, Level.INFO, "line", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    void start_whenRateIsOutOfRange_shouldNotStart() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setRate(1.5);
+        filter.start();
+
+        assertThat(filter.isStarted()).isFalse();
+    }
+
+    private static SamplingTurboFilter filter(double rate) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setRate(rate);
+        filter.start();
+        return filter;
+    }
+}
@@ -0,0 +1,75 @@
+package com.intern.order.metrics;
+
+import com.intern.order.config.DbBudgetProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbStatementMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DbStatementMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DbBudgetProperties budget = new DbBudgetProperties();
+        budget.setStatements(3);
+        budget.setTime(Duration.ofMillis(100));
+        filter = new DbStatementMetricsFilter(meterRegistry, budget);
+    }
+
+    @Test
+    void doFilter_shouldRecordStatementsAndTimeByUriPattern() throws Exception {
+        perform(2, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(meterRegistry.get("http.server.db.statements").tag("uri", "/api/orders/{id}").tag("outcome", "SUCCESSFUL")
+                .summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("http.server.db.time").tag("method", "GET")
+                .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+        assertThat(meterRegistry.find("http.server.db.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    void doFilter_whenOverBudget_shouldCountEachReason() throws Exception {
+        perform(4, TimeUnit.MILLISECONDS.toNanos(150));
+
+        assertThat(meterRegistry.get("http.server.db.budget.exceeded").tag("reason", "statements").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.db.budget.exceeded").tag("reason", "time").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void record_outsideRequest_shouldBeIgnored() throws Exception {
+        RequestDbStats.record(1, 1_000);
+        perform(0, 0);
+
+        // Oldingi so'rovdan qolgan qiymat keyingisiga qo'shilmaydi
+        assertThat(meterRegistry.get("http.server.db.statements").summary().totalAmount()).isZero();
+    }
+
+    private void perform(int statements, long nanos) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/1");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/{id}");
+                for (int i = 0; i < statements; i++) {
+                    RequestDbStats.record(1, nanos / statements);
+                }
+            }
+        });
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
@@ -0,0 +1,129 @@
+package com.intern.order.repository;
+
+import com.intern.order.dto.OrderCursor;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.OrderSearchCriteria;
+import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderItem;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+class OrderRepositoryTest {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Product product;
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(Product.builder()
+                .name("Laptop")
+                .price(new BigDecimal("10.00"))
+                .stock(100)
+                .category("Test")
+                .isActive(true)
+                .build());
+
+        // Oxirgi ikki buyurtma bir xil vaqtda: tartib id bo'yicha aniqlanishi kerak
+        orders.add(save(BASE_DATE, OrderStatus.PENDING, 1));
+        orders.add(save(BASE_DATE.plusDays(1), OrderStatus.SHIPPED, 2));
+        orders.add(save(BASE_DATE.plusDays(2), OrderStatus.PENDING, 0));
+        orders.add(save(BASE_DATE.plusDays(2), OrderStatus.PENDING, 3));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPage_shouldWalkAllOrdersNewestFirstWithoutGapsOrDuplicates() {
+        OrderSearchCriteria all = OrderSearchCriteria.builder().build();
+
+        List<Order> firstPage = orderRepository.findPage(all, null, 2);
+        List<Order> secondPage = orderRepository.findPage(all, OrderCursor.of(firstPage.get(1)), 2);
+        List<Order> lastPage = orderRepository.findPage(all, OrderCursor.of(secondPage.get(1)), 2);
+
+        assertThat(firstPage).extracting(Order::getId).containsExactly(orders.get(3).getId(), orders.get(2).getId());
+        assertThat(secondPage).extracting(Order::getId).containsExactly(orders.get(1).getId(), orders.get(0).getId());
+        assertThat(lastPage).isEmpty();
+    }
+
+    @Test
+    void findPage_shouldApplyStatusAndDateFilters() {
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .status(OrderStatus.PENDING)
+                .from(BASE_DATE)
+                .to(BASE_DATE.plusDays(2))
+                .build();
+
+        assertThat(orderRepository.findPage(criteria, null, 10))
+                .extracting(Order::getId)
+                .containsExactly(orders.get(0).getId());
+    }
+
+    @Test
+    void streamOrders_shouldGroupItemsPerOrderInPageOrder() {
+        List<OrderResponse> exported = new ArrayList<>();
+
+        orderRepository.streamOrders(OrderSearchCriteria.builder().build(), exported::add);
+
+        assertThat(exported).extracting(OrderResponse::getId)
+                .containsExactly(orders.get(3).getId(), orders.get(2).getId(), orders.get(1).getId(), orders.get(0).getId());
+        assertThat(exported.get(0).getOrderItems()).hasSize(3)
+                .allSatisfy(item -> assertThat(item.getProductName()).isEqualTo("Laptop"));
+        assertThat(exported.get(1).getOrderItems()).isEmpty();
+    }
+
+    @Test
+    void streamOrders_shouldApplyStatusFilter() {
+        List<OrderResponse> exported = new ArrayList<>();
+
+        orderRepository.streamOrders(OrderSearchCriteria.builder().status(OrderStatus.SHIPPED).build(), exported::add);
+
+        assertThat(exported).singleElement()
+                .satisfies(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED));
+    }
+
+    private Order save(LocalDateTime orderDate, OrderStatus status, int itemCount) {
+        Order order = Order.builder()
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .orderDate(orderDate)
+                .status(status)
+                .totalAmount(new BigDecimal("10.00").multiply(BigDecimal.valueOf(itemCount)))
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(product)
+                    .quantity(1)
+                    .unitPrice(new BigDecimal("10.00"))
+                    .totalPrice(new BigDecimal("10.00"))
+                    .build());
+        }
+        return orderRepository.save(order);
+    }
+}
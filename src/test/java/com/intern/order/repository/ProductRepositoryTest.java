@@ -0,0 +1,113 @@
+package com.intern.order.repository;
+
+import com.intern.order.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Product laptop;
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        laptop = productRepository.save(product("Laptop", 10));
+        mouse = productRepository.save(product("Mouse", 20));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void decrementStock_shouldUpdateEveryProductInOneStatement() {
+        int updated = productRepository.decrementStock(Map.of(laptop.getId(), 3, mouse.getId(), 5));
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(productRepository.findById(laptop.getId()).orElseThrow().getStock()).isEqualTo(7);
+        assertThat(productRepository.findById(mouse.getId()).orElseThrow().getStock()).isEqualTo(15);
+    }
+
+    @Test
+    void decrementStock_whenStockIsInsufficient_shouldSkipThatProduct() {
+        int updated = productRepository.decrementStock(Map.of(laptop.getId(), 11, mouse.getId(), 5));
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(productRepository.findById(laptop.getId()).orElseThrow().getStock()).isEqualTo(10);
+        assertThat(productRepository.findById(mouse.getId()).orElseThrow().getStock()).isEqualTo(15);
+    }
+
+    @Test
+    void decrementStock_shouldAllowTakingTheLastUnits() {
+        int updated = productRepository.decrementStock(Map.of(laptop.getId(), 10));
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(productRepository.findById(laptop.getId()).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    void decrementStock_withEmptyMap_shouldUpdateNothing() {
+        assertThat(productRepository.decrementStock(Map.of())).isZero();
+    }
+
+    @Test
+    void search_shouldRankExactAndPrefixMatchesFirst() {
+        Product gamingMouse = productRepository.save(product("Gaming Mouse", 5));
+        Product mousePad = productRepository.save(product("Mouse Pad", 5));
+
+        List<Product> result = productRepository.search("mouse", null, 0, 10);
+
+        assertThat(result).extracting(Product::getId)
+                .containsExactly(mouse.getId(), mousePad.getId(), gamingMouse.getId());
+    }
+
+    @Test
+    void search_shouldApplyOffsetAndLimit() {
+        for (int i = 0; i < 5; i++) {
+            productRepository.save(product("Cable " + i, 1));
+        }
+
+        List<Product> firstPage = productRepository.search("cable", "test", 0, 2);
+        List<Product> thirdPage = productRepository.search("cable", "test", 4, 2);
+
+        assertThat(firstPage).extracting(Product::getName).containsExactly("Cable 0", "Cable 1");
+        assertThat(thirdPage).extracting(Product::getName).containsExactly("Cable 4");
+    }
+
+    @Test
+    void search_shouldTreatWildcardsAsPlainCharacters() {
+        productRepository.save(product("100% Cotton", 1));
+
+        assertThat(productRepository.search("%", null, 0, 10)).extracting(Product::getName).containsExactly("100% Cotton");
+        assertThat(productRepository.search("_", null, 0, 10)).isEmpty();
+    }
+
+    private Product product(String name, int stock) {
+        return Product.builder()
+                .name(name)
+                .price(new BigDecimal("10.00"))
+                .stock(stock)
+                .category("Test")
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.intern.order.security;
+
+import com.intern.order.config.JwtProperties;
+import com.intern.order.entity.User;
+import com.intern.order.enums.Role;
+import com.intern.order.enums.UserLookupMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtProperties properties;
+    private JwtUtil jwtUtil;
+    private UserAuthorityLookup userAuthorityLookup;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret("aVeryStrongAndLongSecretKeyForJWTThatShouldBeInAnEnvironmentVariable");
+        properties.setExpirationMs(60_000);
+        jwtUtil = new JwtUtil(properties);
+        userAuthorityLookup = mock(UserAuthorityLookup.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(jwtUtil, userAuthorityLookup, properties, meterRegistry);
+
+        adminToken = jwtUtil.generateToken(User.builder().username("admin").password("x").role(Role.ROLE_ADMIN).build());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void claimsMode_shouldAuthenticateFromTokenWithoutLoadingTheUser() throws Exception {
+        Authentication authentication = filter(adminToken);
+
+        assertThat(authentication.getName()).isEqualTo("admin");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        verify(userAuthorityLookup, never()).find(anyString());
+        assertThat(meterRegistry.get("jwt.verification").tag("outcome", "valid").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedMode_shouldTakeAuthoritiesFromTheCachedUser() throws Exception {
+        properties.setUserLookup(UserLookupMode.CACHED);
+        when(userAuthorityLookup.find("admin")).thenReturn(new CachedUser("admin", new ArrayList<>(List.of("ROLE_USER")), null));
+
+        Authentication authentication = filter(adminToken);
+
+        // Rol tokendan keyin o'zgargan: keshdagi qiymat ustun
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void cachedMode_whenTokensWereRevoked_shouldNotAuthenticate() throws Exception {
+        properties.setUserLookup(UserLookupMode.CACHED);
+        when(userAuthorityLookup.find("admin"))
+                .thenReturn(new CachedUser("admin", new ArrayList<>(List.of("ROLE_ADMIN")), Instant.now()));
+
+        assertThat(filter(adminToken)).isNull();
+    }
+
+    @Test
+    void cachedMode_whenUserWasDeleted_shouldNotAuthenticate() throws Exception {
+        properties.setUserLookup(UserLookupMode.CACHED);
+        when(userAuthorityLookup.find("admin")).thenReturn(null);
+
+        assertThat(filter(adminToken)).isNull();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
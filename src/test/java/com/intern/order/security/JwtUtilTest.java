@@ -0,0 +1,99 @@
+package com.intern.order.security;
+
+import com.intern.order.config.JwtProperties;
+import com.intern.order.entity.User;
+import com.intern.order.enums.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "aVeryStrongAndLongSecretKeyForJWTThatShouldBeInAnEnvironmentVariable";
+
+    private final User admin = User.builder().username("admin").password("ignored").role(Role.ROLE_ADMIN).build();
+
+    @Test
+    void verify_shouldReturnUsernameAndValidateAgainstTheUser() {
+        JwtUtil jwtUtil = jwtUtil(10_000);
+        String token = jwtUtil.generateToken(admin);
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertThat(verified.username()).isEqualTo("admin");
+        assertThat(verified.authorities()).containsExactly("ROLE_ADMIN");
+        assertThat(verified.issuedAt()).isNotNull();
+        assertThat(jwtUtil.isTokenValid(verified, admin)).isTrue();
+        assertThat(jwtUtil.isTokenValid(verified, User.builder().username("other").build())).isFalse();
+    }
+
+    @Test
+    void verify_shouldServeRepeatedTokensFromCache() {
+        JwtUtil jwtUtil = jwtUtil(10_000);
+        String token = jwtUtil.generateToken(admin);
+
+        assertThat(jwtUtil.verify(token)).isSameAs(jwtUtil.verify(token));
+    }
+
+    @Test
+    void bindTo_shouldExportCacheHitsAndMisses() {
+        JwtUtil jwtUtil = jwtUtil(10_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtUtil.bindTo(registry);
+        String token = jwtUtil.generateToken(admin);
+
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+
+        assertThat(registry.get("cache.gets").tag("cache", "jwtVerifiedTokens").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "jwtVerifiedTokens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_withCacheDisabled_shouldParseEveryTime() {
+        JwtUtil jwtUtil = jwtUtil(0);
+        String token = jwtUtil.generateToken(admin);
+
+        assertThat(jwtUtil.verify(token)).isNotSameAs(jwtUtil.verify(token)).isEqualTo(jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_whenSignatureIsTampered_shouldThrow() {
+        JwtUtil jwtUtil = jwtUtil(10_000);
+        String token = jwtUtil.generateToken(admin);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void verify_whenTokenIsExpired_shouldThrow() {
+        JwtUtil jwtUtil = jwtUtil(10_000);
+        String expired = Jwts.builder()
+                .subject("admin")
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(expired));
+    }
+
+    private static JwtUtil jwtUtil(long cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpirationMs(60_000);
+        properties.setVerifiedTokenCacheSize(cacheSize);
+        return new JwtUtil(properties);
+    }
+}
@@ -0,0 +1,65 @@
+package com.intern.order.security.ratelimit;
+
+import com.intern.order.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final LocalRateLimiter limiter = new LocalRateLimiter(1000, Duration.ofMinutes(1), clock::get);
+
+    @Test
+    void tryAcquire_shouldAllowBurstUpToCapacityThenAskToWaitOneInterval() {
+        RateLimitProperties.Rule rule = rule(3, Duration.ofSeconds(2));
+
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isEqualTo(2000);
+
+        // Boshqa mijozning bucket'i alohida
+        assertThat(limiter.tryAcquire(rule, "ip:2")).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOneTokenPerInterval() {
+        RateLimitProperties.Rule rule = rule(2, Duration.ofSeconds(1));
+        limiter.tryAcquire(rule, "ip:1");
+        limiter.tryAcquire(rule, "ip:1");
+
+        clock.addAndGet(Duration.ofMillis(400).toNanos());
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isEqualTo(600);
+
+        clock.addAndGet(Duration.ofMillis(600).toNanos());
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isEqualTo(1000);
+    }
+
+    @Test
+    void tryAcquire_afterLongIdle_shouldNotAccumulateMoreThanCapacity() {
+        RateLimitProperties.Rule rule = rule(2, Duration.ofSeconds(1));
+        limiter.tryAcquire(rule, "ip:1");
+
+        clock.addAndGet(Duration.ofHours(1).toNanos());
+
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isPositive();
+    }
+
+    static RateLimitProperties.Rule rule(int capacity, Duration refillInterval) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("test");
+        rule.setMethod("POST");
+        rule.setPaths(List.of("/api/orders"));
+        rule.setCapacity(capacity);
+        rule.setRefillInterval(refillInterval);
+        return rule;
+    }
+}
@@ -0,0 +1,93 @@
+package com.intern.order.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setRules(List.of(LocalRateLimiterTest.rule(2, Duration.ofSeconds(30))));
+        filter = new RateLimitFilter(new LocalRateLimiter(1000, Duration.ofMinutes(1)), properties, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_whenClientExceedsLimit_shouldAnswer429WithRetryAfterWithoutCallingTheChain() throws Exception {
+        assertThat(perform("POST", "/api/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("POST", "/api/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse limited = perform("POST", "/api/orders", "10.0.0.1", chain);
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(limited.getContentAsString()).contains("Too many requests");
+        assertThat(chain.getRequest()).isNull();
+
+        assertThat(perform("POST", "/api/orders", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_whenNoRuleMatches_shouldNotLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("GET", "/api/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(perform("POST", "/api/products", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void doFilter_whenAuthenticated_shouldLimitPerUserRatherThanPerAddress() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        perform("POST", "/api/orders", "10.0.0.1");
+        perform("POST", "/api/orders", "10.0.0.2");
+
+        assertThat(perform("POST", "/api/orders", "10.0.0.3").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void doFilter_whenDisabled_shouldNotLimit() throws Exception {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("POST", "/api/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddress) throws Exception {
+        return perform(method, path, remoteAddress, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddress, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,77 @@
+package com.intern.order.security.ratelimit;
+
+import com.intern.order.config.RateLimitProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lua skriptni haqiqiy (embedded) Redis'da tekshiradi.
+ */
+class RedisRateLimiterTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisRateLimiter limiter;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        limiter = new RedisRateLimiter(redisTemplate);
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstUpToCapacityThenAskToWait() {
+        RateLimitProperties.Rule rule = LocalRateLimiterTest.rule(3, Duration.ofMinutes(1));
+
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isZero();
+        assertThat(limiter.tryAcquire(rule, "ip:1")).isBetween(59_000L, 60_000L);
+
+        assertThat(limiter.tryAcquire(rule, "ip:2")).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldExpireBucketOnceItIsFullAgain() {
+        RateLimitProperties.Rule rule = LocalRateLimiterTest.rule(2, Duration.ofSeconds(10));
+
+        limiter.tryAcquire(rule, "ip:1");
+
+        assertThat(redisTemplate.getExpire("ratelimit:test:ip:1")).isBetween(1L, 10L);
+    }
+}
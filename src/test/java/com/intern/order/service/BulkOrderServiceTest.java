@@ -0,0 +1,117 @@
+package com.intern.order.service;
+
+import com.intern.order.dto.BulkOrderResponse;
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderItemRequest;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.BulkOrderResultStatus;
+import com.intern.order.repository.CustomerOrderHistoryRepository;
+import com.intern.order.repository.OrderRepository;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.stock.DatabaseStockAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Import({BulkOrderService.class, DatabaseStockAllocator.class, CustomerOrderHistoryProjector.class})
+class BulkOrderServiceTest {
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerOrderHistoryRepository historyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.saveAndFlush(Product.builder()
+                .name("Laptop")
+                .price(new BigDecimal("100.00"))
+                .stock(5)
+                .category("Electronics")
+                .isActive(true)
+                .build());
+    }
+
+    @Test
+    void createOrders_shouldCreateValidOrdersAndRejectTheRest() {
+        List<CreateOrderRequest> requests = List.of(
+                order(product.getId(), 3),
+                order(999L, 1), // mavjud bo'lmagan mahsulot
+                order(product.getId(), 3), // qolgan 2 ta yetmaydi
+                order(product.getId(), 2));
+
+        BulkOrderResponse response = bulkOrderService.createOrders(requests);
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting("status").containsExactly(
+                BulkOrderResultStatus.CREATED, BulkOrderResultStatus.REJECTED,
+                BulkOrderResultStatus.REJECTED, BulkOrderResultStatus.CREATED);
+        assertThat(response.getResults().get(0).getOrderId()).isNotNull();
+        assertThat(response.getResults().get(2).getError()).startsWith("Not enough stock");
+
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(historyRepository.count()).isEqualTo(2);
+        assertThat(productRepository.findStockLevels(List.of(product.getId())).get(0).getStock()).isZero();
+    }
+
+    @Test
+    void createOrders_shouldInsertInJdbcBatches() {
+        product.setStock(1000);
+        productRepository.saveAndFlush(product);
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(order(product.getId(), 1));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkOrderResponse response = bulkOrderService.createOrders(requests);
+
+        assertThat(response.getCreated()).isEqualTo(200);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(600); // buyurtma + element + read model
+        // Har bir insert alohida so'rov bo'lganida 600 dan ortiq statement bo'lardi
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+    }
+
+    private static CreateOrderRequest order(Long productId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerName("Marketplace Customer");
+        request.setCustomerEmail("marketplace@example.com");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
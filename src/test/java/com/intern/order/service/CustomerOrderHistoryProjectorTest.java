@@ -0,0 +1,96 @@
+package com.intern.order.service;
+
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderItem;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+@Import(CustomerOrderHistoryProjector.class)
+class CustomerOrderHistoryProjectorTest {
+
+    @Autowired
+    private CustomerOrderHistoryProjector historyProjector;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = entityManager.persist(Product.builder()
+                .name("Laptop")
+                .price(new BigDecimal("100.00"))
+                .stock(10)
+                .category("Electronics")
+                .isActive(true)
+                .build());
+    }
+
+    @Test
+    void findHistory_shouldReturnOrdersWithItemsNewestFirst() {
+        Order older = placeOrder("jane@example.com", LocalDateTime.now().minusDays(1));
+        Order newer = placeOrder("jane@example.com", LocalDateTime.now());
+        placeOrder("john@example.com", LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OrderResponse> history = historyProjector.findHistory("jane@example.com");
+
+        assertThat(history).extracting(OrderResponse::getId).containsExactly(newer.getId(), older.getId());
+        assertThat(history.get(0).getOrderItems()).singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getProductName()).isEqualTo("Laptop");
+                    assertThat(item.getQuantity()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void statusChanged_shouldUpdateTheReadModel() {
+        Order order = placeOrder("jane@example.com", LocalDateTime.now());
+        entityManager.flush();
+
+        order.setStatus(OrderStatus.CANCELLED);
+        historyProjector.statusChanged(order);
+        entityManager.clear();
+
+        assertThat(historyProjector.findHistory("jane@example.com")).singleElement()
+                .satisfies(response -> assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED));
+    }
+
+    private Order placeOrder(String email, LocalDateTime orderDate) {
+        Order order = Order.builder()
+                .customerName("Customer")
+                .customerEmail(email)
+                .orderDate(orderDate)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("200.00"))
+                .build();
+        order.getOrderItems().add(OrderItem.builder()
+                .order(order)
+                .product(product)
+                .quantity(2)
+                .unitPrice(new BigDecimal("100.00"))
+                .totalPrice(new BigDecimal("200.00"))
+                .build());
+        Order saved = entityManager.persist(order);
+        historyProjector.orderPlaced(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,135 @@
+package com.intern.order.service;
+
+import com.intern.order.config.OrderIntakeProperties;
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderItemRequest;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.metrics.OrderMetrics;
+import com.intern.order.repository.CustomerOrderHistoryRepository;
+import com.intern.order.repository.OrderOutboxRepository;
+import com.intern.order.repository.OrderRepository;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.stock.DatabaseStockAllocator;
+import com.intern.order.service.stock.StockAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ActiveProfiles("test")
+@Import({OrderService.class, DatabaseStockAllocator.class, CustomerOrderHistoryProjector.class, OrderMetrics.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Worker o'z tranzaksiyalarini ochadi
+class OrderIntakeWorkerTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private CustomerOrderHistoryRepository historyRepository;
+
+    @Autowired
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private CustomerOrderHistoryProjector historyProjector;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIntakeWorker worker;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(Product.builder()
+                .name("Hot SKU")
+                .price(new BigDecimal("5.00"))
+                .stock(5)
+                .category("Flash sale")
+                .isActive(true)
+                .build());
+        worker = new OrderIntakeWorker(outboxRepository, orderRepository, stockAllocator, historyProjector, event -> { }, orderMetrics,
+                new TransactionTemplate(transactionManager), new OrderIntakeProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+        outboxRepository.deleteAll();
+        historyRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void processBatch_shouldConfirmOrdersInArrivalOrderAndRejectThoseWithoutStock() {
+        Long first = orderService.acceptOrder(orderFor(3)).getId();
+        Long second = orderService.acceptOrder(orderFor(3)).getId();
+        Long third = orderService.acceptOrder(orderFor(2)).getId();
+
+        int processed = worker.processBatch(10);
+
+        assertThat(processed).isEqualTo(3);
+        assertThat(orderRepository.findStatusById(first)).isEqualTo(OrderStatus.PENDING);
+        assertThat(orderRepository.findStatusById(second)).isEqualTo(OrderStatus.REJECTED);
+        assertThat(orderRepository.findStatusById(third)).isEqualTo(OrderStatus.PENDING);
+        // Rad etilgan buyurtma uchun UPDATE umuman yuborilmagan: zaxira oldin qulflanib tekshirilgan
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isZero();
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(meterRegistry.get("orders.placed").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processBatch_shouldSkipOrdersCancelledWhileWaiting() {
+        Long id = orderService.acceptOrder(orderFor(2)).getId();
+        orderService.cancelOrder(id);
+
+        assertThat(worker.processBatch(10)).isZero();
+        assertThat(orderRepository.findStatusById(id)).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(5);
+    }
+
+    private CreateOrderRequest orderFor(int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerName("Intake Customer");
+        request.setCustomerEmail("intake@example.com");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
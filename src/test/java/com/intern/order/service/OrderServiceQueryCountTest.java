@@ -0,0 +1,133 @@
+package com.intern.order.service;
+
+import com.intern.order.dto.OrderPageResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.dto.OrderSearchCriteria;
+import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderItem;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.metrics.OrderMetrics;
+import com.intern.order.service.stock.DatabaseStockAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Buyurtmalarni o'qish buyurtmalar soniga bog'liq bo'lmagan miqdordagi SQL so'rovlari bilan bajarilishini tekshiradi (N+1 yo'q).
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Import({OrderService.class, DatabaseStockAllocator.class, CustomerOrderHistoryProjector.class, OrderMetrics.class,
+        SimpleMeterRegistry.class})
+class OrderServiceQueryCountTest {
+
+    private static final int ORDER_COUNT = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CustomerOrderHistoryProjector historyProjector;
+
+    private Statistics statistics;
+    private Long firstOrderId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = Order.builder()
+                    .customerName("Customer")
+                    .customerEmail("customer@example.com")
+                    .orderDate(LocalDateTime.now().minusMinutes(i))
+                    .status(OrderStatus.PENDING)
+                    .totalAmount(new BigDecimal("20.00"))
+                    .build();
+            // Har bir element alohida mahsulotga ishora qiladi, shunda mahsulotlar ham N+1 ga sabab bo'lishi mumkin edi
+            for (int j = 0; j < 2; j++) {
+                Product product = entityManager.persist(Product.builder()
+                        .name("Product " + i + "-" + j)
+                        .price(new BigDecimal("10.00"))
+                        .stock(10)
+                        .category("Test")
+                        .isActive(true)
+                        .build());
+                order.getOrderItems().add(OrderItem.builder()
+                        .order(order)
+                        .product(product)
+                        .quantity(1)
+                        .unitPrice(new BigDecimal("10.00"))
+                        .totalPrice(new BigDecimal("10.00"))
+                        .build());
+            }
+            Order saved = entityManager.persist(order);
+            historyProjector.orderPlaced(saved);
+            if (firstOrderId == null) {
+                firstOrderId = saved.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllOrders_shouldUseASingleQuery() {
+        List<OrderResponse> orders = orderService.getAllOrders();
+
+        assertThat(orders).hasSize(ORDER_COUNT)
+                .allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrdersByCustomerEmail_shouldUseASingleQuery() {
+        List<OrderResponse> orders = orderService.getOrdersByCustomerEmail("customer@example.com");
+
+        assertThat(orders).hasSize(ORDER_COUNT);
+        assertThat(orders.get(0).getOrderItems().get(0).getProductName()).startsWith("Product");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrderById_shouldUseASingleQuery() {
+        OrderResponse order = orderService.getOrderById(firstOrderId);
+
+        assertThat(order.getOrderItems()).extracting("productName").containsExactlyInAnyOrder("Product 0-0", "Product 0-1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrdersPage_shouldUseTwoQueriesRegardlessOfPageSize() {
+        OrderPageResponse page = orderService.getOrdersPage(OrderSearchCriteria.builder().build(), null, ORDER_COUNT);
+
+        assertThat(page.getContent()).hasSize(ORDER_COUNT)
+                .allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
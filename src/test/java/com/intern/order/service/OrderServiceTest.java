@@ -1,23 +1,37 @@
 package com.intern.order.service;
 
+import com.intern.order.dto.BulkStatusUpdateResponse;
+import com.intern.order.dto.BulkStatusUpdateResult;
 import com.intern.order.dto.CreateOrderRequest;
 import com.intern.order.dto.OrderItemRequest;
 import com.intern.order.dto.OrderResponse;
 import com.intern.order.entity.Order;
+import com.intern.order.entity.OrderOutboxEntry;
 import com.intern.order.entity.Product;
+import com.intern.order.enums.BulkStatusUpdateOutcome;
+import com.intern.order.enums.OrderStatus;
 import com.intern.order.exception.InsufficientStockException;
+import com.intern.order.exception.InvalidOrderStatusException;
 import com.intern.order.exception.ProductNotFoundException;
+import com.intern.order.metrics.OrderMetrics;
+import com.intern.order.repository.OrderItemRepository;
+import com.intern.order.repository.OrderOutboxRepository;
 import com.intern.order.repository.OrderRepository;
 import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.events.OrderStatusChanged;
+import com.intern.order.service.stock.StockAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import java.math.BigDecimal;
 import java.util.Collections;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +46,24 @@ class OrderServiceTest {
     @Mock // Soxta (mock) obyekt yaratamiz
     private OrderRepository orderRepository;
 
+    @Mock
+    private StockAllocator stockAllocator;
+
+    @Mock
+    private CustomerOrderHistoryProjector historyProjector;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
     @InjectMocks // Yuqoridagi mock'larni bu obyektga inject qilamiz
     private OrderService orderService;
 
@@ -62,7 +94,7 @@ class OrderServiceTest {
     @Test
     void createOrder_whenStockIsSufficient_shouldSucceed() {
         // Arrange (Tayyorgarlik)
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act (Amal)
@@ -73,16 +105,19 @@ class OrderServiceTest {
         assertEquals(new BigDecimal("200.00"), response.getTotalAmount());
         assertEquals(1, response.getOrderItems().size());
 
-        // ProductRepository'ning save metodi chaqirilganini tekshiramiz (stock kamayishi uchun)
-        verify(productRepository, times(1)).save(any(Product.class));
+        // Zaxira butun savat uchun bir marta band qilinganini tekshiramiz, har bir mahsulot alohida saqlanmaydi
+        verify(stockAllocator, times(1)).reserve(Map.of(1L, 2));
+        verify(productRepository, never()).save(any(Product.class));
         // OrderRepository'ning save metodi chaqirilganini tekshiramiz
         verify(orderRepository, times(1)).save(any(Order.class));
+        // Read model ham shu tranzaksiyada yangilanadi
+        verify(historyProjector, times(1)).orderPlaced(any(Order.class));
     }
 
     @Test
     void createOrder_whenProductNotFound_shouldThrowException() {
         // Arrange
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findAllById(List.of(1L))).thenReturn(Collections.emptyList());
 
         // Act & Assert
         assertThrows(ProductNotFoundException.class, () -> {
@@ -91,21 +126,184 @@ class OrderServiceTest {
 
         // Hech qanday save metodi chaqirilmaganini tekshiramiz
         verify(orderRepository, never()).save(any());
-        verify(productRepository, never()).save(any());
+        verify(stockAllocator, never()).reserve(any());
     }
 
     @Test
     void createOrder_whenStockIsInsufficient_shouldThrowException() {
         // Arrange
         product.setStock(1); // Omborda atigi 1 ta mahsulot bor
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+        doThrow(new InsufficientStockException("Not enough stock")).when(stockAllocator).reserve(Map.of(1L, 2));
 
         // Act & Assert
         assertThrows(InsufficientStockException.class, () -> {
             orderService.createOrder(createOrderRequest);
         });
 
-        // Hech qanday save metodi chaqirilmaganini tekshiramiz
         verify(orderRepository, never()).save(any());
+        verify(orderMetrics).insufficientStock();
+    }
+
+    @Test
+    void createOrder_withManyItems_shouldLoadProductsInOneQuery() {
+        // Arrange
+        Product second = Product.builder()
+                .id(2L)
+                .name("Second Product")
+                .price(new BigDecimal("50.00"))
+                .stock(5)
+                .isActive(true)
+                .build();
+
+        OrderItemRequest secondItem = new OrderItemRequest();
+        secondItem.setProductId(2L);
+        secondItem.setQuantity(3);
+        createOrderRequest.setOrderItems(List.of(createOrderRequest.getOrderItems().get(0), secondItem));
+
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(second, product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        OrderResponse response = orderService.createOrder(createOrderRequest);
+
+        // Assert
+        assertEquals(new BigDecimal("350.00"), response.getTotalAmount());
+        assertEquals(1L, response.getOrderItems().get(0).getProductId());
+        assertEquals(2L, response.getOrderItems().get(1).getProductId());
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productRepository, never()).findById(any());
+        verify(stockAllocator, times(1)).reserve(Map.of(1L, 2, 2L, 3));
+    }
+
+    @Test
+    void cancelOrder_shouldReleaseStockOfEveryItemAtOnce() {
+        // Arrange
+        when(orderRepository.findAllForUpdate(List.of(5L))).thenReturn(List.of(orderWithStatus(5L, OrderStatus.PENDING)));
+        when(orderItemRepository.sumQuantitiesByProduct(List.of(5L))).thenReturn(List.of(productQuantity(1L, 2L)));
+
+        // Act
+        orderService.cancelOrder(5L);
+
+        // Assert
+        verify(orderOutboxRepository, times(1)).deleteByOrderIdIn(List.of(5L));
+        verify(stockAllocator, times(1)).release(Map.of(1L, 2));
+        verify(productRepository, never()).save(any());
+        verify(orderRepository, times(1)).updateStatuses(List.of(5L), OrderStatus.sourcesOf(OrderStatus.CANCELLED), OrderStatus.CANCELLED);
+        verify(historyProjector, times(1)).statusesChanged(List.of(5L), OrderStatus.CANCELLED);
+        verify(eventPublisher, times(1)).publishEvent(new OrderStatusChanged(5L, OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void acceptOrder_shouldStoreReceivedOrderWithOutboxEntryWithoutTouchingStock() {
+        // Arrange
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(7L);
+            return order;
+        });
+
+        // Act
+        OrderResponse response = orderService.acceptOrder(createOrderRequest);
+
+        // Assert
+        assertEquals(OrderStatus.RECEIVED, response.getStatus());
+        assertEquals(0, new BigDecimal("200.00").compareTo(response.getTotalAmount()));
+        verify(orderOutboxRepository, times(1)).save(argThat((OrderOutboxEntry entry) -> entry.getOrderId().equals(7L)));
+        verify(stockAllocator, never()).reserve(any());
+    }
+
+    @Test
+    void cancelOrder_whenStillReceived_shouldNotReleaseStock() {
+        // Arrange
+        when(orderRepository.findAllForUpdate(List.of(5L))).thenReturn(List.of(orderWithStatus(5L, OrderStatus.RECEIVED)));
+
+        // Act
+        orderService.cancelOrder(5L);
+
+        // Assert
+        verify(orderOutboxRepository, times(1)).deleteByOrderIdIn(List.of(5L));
+        verify(orderItemRepository, never()).sumQuantitiesByProduct(any());
+        verify(stockAllocator, never()).release(any());
+        verify(orderRepository, times(1)).updateStatuses(List.of(5L), OrderStatus.sourcesOf(OrderStatus.CANCELLED), OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void cancelOrder_whenAlreadyDelivered_shouldThrowAndChangeNothing() {
+        // Arrange
+        when(orderRepository.findAllForUpdate(List.of(5L))).thenReturn(List.of(orderWithStatus(5L, OrderStatus.DELIVERED)));
+
+        // Act & Assert
+        assertThrows(InvalidOrderStatusException.class, () -> orderService.cancelOrder(5L));
+        verify(stockAllocator, never()).release(any());
+        verify(orderRepository, never()).updateStatuses(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateOrderStatuses_shouldLockOrdersInAscendingIdOrderBeforeUpdating() {
+        // Arrange
+        when(orderRepository.findAllForUpdate(List.of(3L, 5L))).thenReturn(List.of(
+                orderWithStatus(3L, OrderStatus.PENDING),
+                orderWithStatus(5L, OrderStatus.PENDING)));
+        when(orderRepository.updateStatuses(any(), any(), eq(OrderStatus.CONFIRMED))).thenReturn(2);
+
+        // Act
+        BulkStatusUpdateResponse response = orderService.updateOrderStatuses(List.of(5L, 3L), OrderStatus.CONFIRMED);
+
+        // Assert: bekor qilish bilan bir xil tartibda qulflanadi, shuning uchun deadlock bo'lmaydi
+        assertEquals(2, response.getUpdated());
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).findAllForUpdate(List.of(3L, 5L));
+        inOrder.verify(orderRepository).updateStatuses(eq(List.of(5L, 3L)), any(), eq(OrderStatus.CONFIRMED));
+        verify(orderRepository, never()).findStatuses(any());
+    }
+
+    @Test
+    void cancelOrders_shouldReleaseStockOfAllCancelledOrdersWithOneCallAndReportTheRest() {
+        // Arrange
+        when(orderRepository.findAllForUpdate(List.of(3L, 5L, 7L, 8L))).thenReturn(List.of(
+                orderWithStatus(3L, OrderStatus.CONFIRMED),
+                orderWithStatus(5L, OrderStatus.PENDING),
+                orderWithStatus(7L, OrderStatus.DELIVERED)));
+        when(orderItemRepository.sumQuantitiesByProduct(List.of(5L, 3L)))
+                .thenReturn(List.of(productQuantity(1L, 5L), productQuantity(2L, 1L)));
+
+        // Act
+        BulkStatusUpdateResponse response = orderService.cancelOrders(List.of(5L, 3L, 7L, 8L, 5L));
+
+        // Assert
+        assertEquals(2, response.getUpdated());
+        assertEquals(2, response.getFailed());
+        assertEquals(List.of(5L, 3L, 7L, 8L), response.getResults().stream().map(BulkStatusUpdateResult::getOrderId).toList());
+        assertEquals(List.of(BulkStatusUpdateOutcome.UPDATED, BulkStatusUpdateOutcome.UPDATED,
+                        BulkStatusUpdateOutcome.REJECTED, BulkStatusUpdateOutcome.NOT_FOUND),
+                response.getResults().stream().map(BulkStatusUpdateResult::getOutcome).toList());
+        // Qulflar ID bo'yicha o'sish tartibida olinadi
+        verify(orderOutboxRepository, times(1)).deleteByOrderIdIn(List.of(3L, 5L, 7L, 8L));
+        verify(stockAllocator, times(1)).release(Map.of(1L, 5, 2L, 1));
+        verify(orderRepository, times(1)).updateStatuses(List.of(5L, 3L), OrderStatus.sourcesOf(OrderStatus.CANCELLED), OrderStatus.CANCELLED);
+    }
+
+    private static Order orderWithStatus(Long id, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .status(status)
+                .build();
+    }
+
+    private static OrderItemRepository.ProductQuantity productQuantity(Long productId, Long quantity) {
+        return new OrderItemRepository.ProductQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
     }
-}
\ No newline at end of file
+}
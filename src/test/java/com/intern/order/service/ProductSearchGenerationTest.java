@@ -0,0 +1,39 @@
+package com.intern.order.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchGenerationTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private ProductSearchGeneration searchGeneration;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(ProductSearchGeneration.CACHE_NAME);
+        searchGeneration = new ProductSearchGeneration(cacheManager);
+    }
+
+    @Test
+    void current_shouldStayTheSameUntilBumped() {
+        String first = searchGeneration.current();
+
+        assertThat(searchGeneration.current()).isEqualTo(first);
+
+        searchGeneration.bump();
+
+        assertThat(searchGeneration.current()).isNotEqualTo(first);
+    }
+
+    @Test
+    void current_whenTokenWasLost_shouldNotReuseAnOldToken() {
+        String first = searchGeneration.current();
+
+        cacheManager.getCache(ProductSearchGeneration.CACHE_NAME).clear(); // masalan, TTL tugadi
+
+        assertThat(searchGeneration.current()).isNotEqualTo(first);
+    }
+}
@@ -5,6 +5,8 @@ import com.intern.order.dto.ProductResponse;
 import com.intern.order.entity.Product;
 import com.intern.order.exception.ProductNotFoundException;
 import com.intern.order.repository.ProductRepository;
+import com.intern.order.service.search.ProductSearchIndex;
+import com.intern.order.service.stock.StockAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +28,15 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private StockAllocator stockAllocator;
+
+    @Mock
+    private ProductSearchGeneration searchGeneration;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
     @InjectMocks
     private ProductService productService;
 
@@ -85,6 +96,8 @@ class ProductServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(1L);
         verify(productRepository, times(1)).save(any(Product.class));
+        // Faqat qidiruv natijalari eskiradi
+        verify(searchGeneration, times(1)).bump();
     }
     
     @Test
@@ -98,6 +111,8 @@ class ProductServiceTest {
 
         // Assert
         verify(productRepository, times(1)).deleteById(1L);
+        verify(stockAllocator, times(1)).invalidate(1L);
+        verify(searchGeneration, times(1)).bump();
     }
     
     @Test
@@ -111,5 +126,6 @@ class ProductServiceTest {
         });
         
         verify(productRepository, never()).deleteById(anyLong());
+        verify(searchGeneration, never()).bump();
     }
 }
@@ -0,0 +1,96 @@
+package com.intern.order.service.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.intern.order.config.OrderEventProperties;
+import com.intern.order.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventBroadcasterTest {
+
+    private static final int BUFFER = 4;
+
+    private OrderEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        OrderEventProperties properties = new OrderEventProperties();
+        properties.setSubscriberBuffer(BUFFER);
+        broadcaster = new OrderEventBroadcaster(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void statusChanged_whenSubscriberFallsBehindItsBuffer_shouldCompleteAndRemoveIt() throws Exception {
+        BlockingEmitter slow = new BlockingEmitter();
+        broadcaster.subscribe(slow, null, null);
+        broadcaster.subscribe(new SseEmitter(), null, null);
+        try {
+            broadcaster.statusChanged(new OrderStatusChanged(1L, OrderStatus.CONFIRMED));
+            // Birinchi hodisa yuborilmoqda va socket "tiqilib qolgan": keyingilari navbatda to'planadi
+            assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < BUFFER; i++) {
+                broadcaster.statusChanged(new OrderStatusChanged(1L, OrderStatus.SHIPPED));
+            }
+            assertThat(slow.completed.getCount()).isEqualTo(1);
+
+            broadcaster.statusChanged(new OrderStatusChanged(1L, OrderStatus.DELIVERED));
+
+            assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+            // Tez obunachi ulanib qoladi
+            assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        } finally {
+            slow.release.countDown();
+        }
+    }
+
+    /**
+     * Emitter whose socket never accepts the first event until released. Completion callbacks run on
+     * {@link #complete()}, as the servlet container would run them once the async request finishes.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Runnable completionCallback = () -> {
+        };
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public void complete() {
+            completionCallback.run();
+            completed.countDown();
+        }
+    }
+}
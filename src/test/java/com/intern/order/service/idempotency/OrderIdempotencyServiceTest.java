@@ -0,0 +1,137 @@
+package com.intern.order.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intern.order.config.OrderIdempotencyProperties;
+import com.intern.order.dto.CreateOrderRequest;
+import com.intern.order.dto.OrderItemRequest;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.enums.OrderStatus;
+import com.intern.order.exception.IdempotencyKeyInProgressException;
+import com.intern.order.exception.IdempotencyKeyMismatchException;
+import com.intern.order.exception.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderIdempotencyServiceTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private LocalIdempotencyStore store;
+    private OrderIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        OrderIdempotencyProperties properties = new OrderIdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofMillis(300));
+        store = new LocalIdempotencyStore(1000);
+        service = new OrderIdempotencyService(store, properties, new ObjectMapper());
+    }
+
+    @Test
+    void execute_whenKeyRepeats_shouldReplayFirstResponseWithoutRunningAgain() {
+        IdempotentResponse first = service.execute("key-1", request(2), this::createOrder);
+        IdempotentResponse retry = service.execute("key-1", request(2), this::createOrder);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response()).isEqualTo(first.response());
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_whenDuplicatesArriveTogether_shouldRunOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotentResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(pool.submit(() -> service.execute("key-1", request(2), request -> {
+                    awaitQuietly(release);
+                    return createOrder(request);
+                })));
+            }
+            // Birinchi so'rov bajarilayotgan paytda qolganlari kutib turadi
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<IdempotentResponse> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS).response().getId()).isEqualTo(1L);
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_whenKeyIsReusedForAnotherBody_shouldThrow() {
+        service.execute("key-1", request(2), this::createOrder);
+
+        assertThrows(IdempotencyKeyMismatchException.class, () -> service.execute("key-1", request(3), this::createOrder));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_whenFirstAttemptFails_shouldRunAgainOnRetry() {
+        assertThrows(InsufficientStockException.class, () -> service.execute("key-1", request(2), request -> {
+            throw new InsufficientStockException("Not enough stock");
+        }));
+
+        IdempotentResponse retry = service.execute("key-1", request(2), this::createOrder);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_whenAnotherInstanceIsStillRunningTheKey_shouldGiveUpAfterWaitTimeout() {
+        service.execute("key-1", request(2), this::createOrder);
+        String fingerprint = store.find("key-1").orElseThrow().fingerprint();
+        // Boshqa instansiya shu so'rovni bajarayotgandek kalitni band qilamiz
+        store.claim("key-2", fingerprint, "other-instance", Duration.ofMinutes(1));
+
+        assertThrows(IdempotencyKeyInProgressException.class, () -> service.execute("key-2", request(2), this::createOrder));
+        assertThat(executions).hasValue(1);
+    }
+
+    private OrderResponse createOrder(CreateOrderRequest request) {
+        return OrderResponse.builder()
+                .id((long) executions.incrementAndGet())
+                .customerEmail(request.getCustomerEmail())
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+
+    private static CreateOrderRequest request(int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(1L);
+        item.setQuantity(quantity);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerName("Retrying Customer");
+        request.setCustomerEmail("retry@example.com");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
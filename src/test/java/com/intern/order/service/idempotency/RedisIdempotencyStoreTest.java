@@ -0,0 +1,134 @@
+package com.intern.order.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.intern.order.dto.OrderItemResponse;
+import com.intern.order.dto.OrderResponse;
+import com.intern.order.enums.OrderStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lua skriptlarni haqiqiy (embedded) Redis'da tekshiradi.
+ */
+class RedisIdempotencyStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisIdempotencyStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        store = new RedisIdempotencyStore(redisTemplate, objectMapper);
+    }
+
+    @Test
+    void claim_shouldLetOnlyTheFirstCallerOwnTheKey() {
+        assertThat(store.claim("key-1", "abc", "token-1", Duration.ofSeconds(30))).isEmpty();
+
+        assertThat(store.claim("key-1", "abc", "token-2", Duration.ofSeconds(30))).contains(new IdempotencyRecord("abc", null));
+        assertThat(redisTemplate.getExpire("{idempotency}:orders:key-1")).isPositive();
+    }
+
+    @Test
+    void complete_shouldStoreResponseForReplays() {
+        OrderResponse response = OrderResponse.builder()
+                .id(7L)
+                .customerName("Retrying Customer")
+                .customerEmail("retry@example.com")
+                .orderDate(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("200.00"))
+                .orderItems(List.of(new OrderItemResponse(1L, "Test Product", 2, new BigDecimal("100.00"), new BigDecimal("200.00"))))
+                .build();
+        store.claim("key-1", "abc", "token-1", Duration.ofSeconds(30));
+
+        store.complete("key-1", "abc", "token-1", response, Duration.ofHours(1));
+
+        assertThat(store.find("key-1")).contains(new IdempotencyRecord("abc", response));
+        assertThat(store.claim("key-1", "abc", "token-2", Duration.ofSeconds(30))).contains(new IdempotencyRecord("abc", response));
+    }
+
+    @Test
+    void abandon_shouldOnlyReleaseOwnUncompletedClaim() {
+        store.claim("key-1", "abc", "token-1", Duration.ofSeconds(30));
+
+        store.abandon("key-1", "abc", "token-2");
+        assertThat(store.find("key-1")).isPresent();
+
+        store.abandon("key-1", "abc", "token-1");
+        assertThat(store.find("key-1")).isEmpty();
+    }
+
+    @Test
+    void complete_whenKeyWasClaimedByAnotherRequest_shouldKeepTheirClaim() {
+        store.claim("key-1", "other", "token-2", Duration.ofSeconds(30));
+
+        store.complete("key-1", "abc", "token-1", OrderResponse.builder().id(7L).build(), Duration.ofHours(1));
+
+        assertThat(store.find("key-1")).contains(new IdempotencyRecord("other", null));
+    }
+
+    @Test
+    void abandon_whenExpiredClaimWasRetakenWithSameBody_shouldKeepTheNewClaim() {
+        store.claim("key-1", "abc", "token-1", Duration.ofMillis(1));
+        sleep(Duration.ofMillis(20));
+        // Birinchi so'rovning claim'i tugadi, retry xuddi shu body bilan kalitni qayta oldi
+        assertThat(store.claim("key-1", "abc", "token-2", Duration.ofSeconds(30))).isEmpty();
+
+        store.abandon("key-1", "abc", "token-1");
+        store.complete("key-1", "abc", "token-1", OrderResponse.builder().id(7L).build(), Duration.ofHours(1));
+
+        assertThat(store.find("key-1")).contains(new IdempotencyRecord("abc", null));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
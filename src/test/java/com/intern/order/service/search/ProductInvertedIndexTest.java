@@ -0,0 +1,74 @@
+package com.intern.order.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductInvertedIndexTest {
+
+    private ProductInvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductInvertedIndex();
+        index.put(1L, "Apple iPhone 15", "Mobile");
+        index.put(2L, "Apple MacBook Pro", "Laptop");
+        index.put(3L, "Gaming Keyboard", "Accessories");
+        index.put(4L, "Keyboard Cover for MacBook", "Accessories");
+    }
+
+    @Test
+    void search_shouldRankExactMatchesBeforePrefixMatches() {
+        index.put(5L, "Keyboards Bundle", "Accessories");
+
+        assertThat(index.search("keyboard", null, 0, 10)).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndRequireEveryTerm() {
+        assertThat(index.search("mac pro", null, 0, 10)).containsExactly(2L);
+        assertThat(index.search("app", null, 0, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_shouldTolerateTypos() {
+        assertThat(index.search("keybaord", null, 0, 10)).containsExactly(3L, 4L);
+        assertThat(index.search("macbok", null, 0, 10)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void search_shouldFilterByCategory() {
+        assertThat(index.search("macbook", "accessories", 0, 10)).containsExactly(4L);
+        assertThat(index.search(null, "laptop", 0, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void search_shouldApplyOffsetAndLimit() {
+        assertThat(index.search(null, null, 1, 2)).containsExactly(2L, 3L);
+        assertThat(index.search(null, null, 10, 2)).isEmpty();
+    }
+
+    @Test
+    void put_shouldReplaceThePreviousVersion() {
+        index.put(3L, "Wireless Mouse", "Accessories");
+
+        assertThat(index.search("gaming", null, 0, 10)).isEmpty();
+        assertThat(index.search("mouse", null, 0, 10)).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void remove_shouldHideTheProduct() {
+        index.remove(1L);
+
+        assertThat(index.search("apple", null, 0, 10)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void boundedEditDistance_shouldStopAtTheLimit() {
+        assertThat(ProductInvertedIndex.boundedEditDistance("keybaord", "keyboard", 2)).isEqualTo(2);
+        assertThat(ProductInvertedIndex.boundedEditDistance("mouse", "keyboard", 2)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,170 @@
+package com.intern.order.service.search;
+
+import com.intern.order.config.ProductSearchProperties;
+import com.intern.order.dto.SearchIndexStatsResponse;
+import com.intern.order.entity.Product;
+import com.intern.order.enums.ProductSearchEngine;
+import com.intern.order.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchProperties properties;
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductSearchProperties();
+        properties.setEngine(ProductSearchEngine.IN_MEMORY);
+        properties.setRebuildBatchSize(2);
+        searchIndex = new ProductSearchIndex(productRepository, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void search_beforeFirstRebuild_shouldFallBackToDatabase() {
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isNull();
+        assertThat(searchIndex.stats().isAvailable()).isFalse();
+    }
+
+    @Test
+    void rebuild_shouldReadEveryBatchInIdOrder() {
+        when(productRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(product(1L, "Gaming Laptop"), product(2L, "Office Laptop")));
+        when(productRepository.findByIdGreaterThanOrderById(eq(2L), any(Limit.class)))
+                .thenReturn(List.of(product(3L, "Laptop Bag")));
+
+        SearchIndexStatsResponse stats = searchIndex.rebuild();
+
+        assertThat(stats.isAvailable()).isTrue();
+        assertThat(stats.getProducts()).isEqualTo(3);
+        assertThat(searchIndex.search("laptop", null, 0, 10)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void rebuild_whenWriteCommitsMeanwhile_shouldReplayItIntoTheNewIndex() {
+        when(productRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // Rebuild birinchi partiyani o'qiyotganda boshqa thread'dagi tranzaksiyalar commit bo'ladi
+            commitOnAnotherThread(() -> {
+                searchIndex.indexed(product(1L, "Renamed Phone"));
+                searchIndex.removed(2L);
+                searchIndex.indexed(product(3L, "New Tablet"));
+            });
+            // Baza esa hali eski holatni qaytaradi
+            return List.of(product(1L, "Old Laptop"), product(2L, "Deleted Laptop"));
+        });
+        when(productRepository.findByIdGreaterThanOrderById(eq(2L), any(Limit.class))).thenReturn(List.of());
+
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isEmpty();
+        assertThat(searchIndex.search("phone", null, 0, 10)).containsExactly(1L);
+        assertThat(searchIndex.search("tablet", null, 0, 10)).containsExactly(3L);
+        assertThat(searchIndex.stats().getProducts()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_whenOverMemoryBudget_shouldStopReadingAndFallBackToDatabase() {
+        properties.setMemoryBudget(DataSize.ofBytes(1));
+        when(productRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(product(1L, "Gaming Laptop"), product(2L, "Office Laptop")));
+
+        SearchIndexStatsResponse stats = searchIndex.rebuild();
+
+        assertThat(stats.isAvailable()).isFalse();
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isNull();
+        // Byudjet birinchi partiyadayoq oshdi: qolgan mahsulotlar o'qilmaydi
+        verify(productRepository, times(1)).findByIdGreaterThanOrderById(any(), any(Limit.class));
+    }
+
+    @Test
+    void indexed_whenIndexGrowsPastMemoryBudget_shouldFallBackToDatabase() {
+        when(productRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(product(1L, "Gaming Laptop")));
+        long builtBytes = searchIndex.rebuild().getEstimatedBytes();
+        properties.setMemoryBudget(DataSize.ofBytes(builtBytes));
+
+        searchIndex.indexed(product(2L, "Completely Different Wording"));
+
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isNull();
+        assertThat(searchIndex.stats().isAvailable()).isFalse();
+    }
+
+    @Test
+    void indexed_shouldOnlyReachTheIndexAfterCommit() {
+        buildEmptyIndex();
+        TransactionSynchronizationManager.initSynchronization();
+
+        searchIndex.indexed(product(1L, "Gaming Laptop"));
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(searchIndex.search("laptop", null, 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void indexed_whenTransactionRollsBack_shouldNeverReachTheIndex() {
+        buildEmptyIndex();
+        TransactionSynchronizationManager.initSynchronization();
+
+        searchIndex.indexed(product(1L, "Gaming Laptop"));
+        searchIndex.removed(2L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isEmpty();
+        assertThat(searchIndex.stats().getProducts()).isZero();
+    }
+
+    @Test
+    void indexed_whenEngineIsDatabase_shouldIgnoreWrites() {
+        buildEmptyIndex();
+        properties.setEngine(ProductSearchEngine.DATABASE);
+
+        searchIndex.indexed(product(1L, "Gaming Laptop"));
+
+        assertThat(searchIndex.search("laptop", null, 0, 10)).isEmpty();
+    }
+
+    private void buildEmptyIndex() {
+        when(productRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class))).thenReturn(List.of());
+        searchIndex.rebuild();
+    }
+
+    private static void commitOnAnotherThread(Runnable writes) throws InterruptedException {
+        Thread thread = new Thread(writes);
+        thread.start();
+        thread.join();
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder().id(id).name(name).category("Electronics").build();
+    }
+}
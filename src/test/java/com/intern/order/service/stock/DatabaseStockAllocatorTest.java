@@ -0,0 +1,88 @@
+package com.intern.order.service.stock;
+
+import com.intern.order.exception.InsufficientStockException;
+import com.intern.order.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseStockAllocatorTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private DatabaseStockAllocator allocator;
+
+    @Test
+    void reserve_whenEveryRowIsUpdated_shouldSucceed() {
+        when(productRepository.decrementStock(Map.of(1L, 2, 2L, 1))).thenReturn(2);
+
+        allocator.reserve(Map.of(1L, 2, 2L, 1));
+
+        verify(productRepository, never()).findStockLevels(any());
+    }
+
+    @Test
+    void reserve_whenConcurrentOrderTookTheStock_shouldThrowException() {
+        // Arrange: shartli UPDATE hech bir qatorni o'zgartirmadi
+        when(productRepository.decrementStock(Map.of(1L, 2))).thenReturn(0);
+        when(productRepository.findStockLevels(Map.of(1L, 2).keySet())).thenReturn(List.of(stockLevel(1L, 1)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> allocator.reserve(Map.of(1L, 2)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage("Not enough stock for product id: 1. Available: 1, Requested: 2");
+    }
+
+    @Test
+    void tryReserve_whenOneProductIsShort_shouldNotUpdateAnyRow() {
+        Map<Long, Integer> quantities = Map.of(1L, 2, 2L, 3);
+        when(productRepository.findStockLevels(quantities.keySet())).thenReturn(List.of(stockLevel(1L, 5), stockLevel(2L, 2)));
+
+        assertThat(allocator.tryReserve(quantities)).isFalse();
+
+        verify(productRepository).findAllForUpdate(quantities.keySet());
+        verify(productRepository, never()).decrementStock(any());
+    }
+
+    @Test
+    void tryReserve_whenEveryProductHasEnough_shouldReserve() {
+        Map<Long, Integer> quantities = Map.of(1L, 2);
+        when(productRepository.findStockLevels(quantities.keySet())).thenReturn(List.of(stockLevel(1L, 2)));
+        when(productRepository.decrementStock(quantities)).thenReturn(1);
+
+        assertThat(allocator.tryReserve(quantities)).isTrue();
+    }
+
+    @Test
+    void release_shouldAddStockBackInOneUpdate() {
+        allocator.release(Map.of(1L, 2, 2L, 3));
+
+        verify(productRepository, times(1)).addStock(Map.of(1L, 2, 2L, 3));
+    }
+
+    private ProductRepository.StockLevel stockLevel(Long id, Integer stock) {
+        return new ProductRepository.StockLevel() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.intern.order.service.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalStockCounterStoreTest {
+
+    private LocalStockCounterStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalStockCounterStore(4);
+        store.initialize(Map.of(1L, 10, 2L, 5));
+    }
+
+    @Test
+    void tryReserve_whenEnoughStock_shouldReserveAndRecordPendingDelta() {
+        ReservationOutcome outcome = store.tryReserve(Map.of(1L, 3, 2L, 5));
+
+        assertThat(outcome.status()).isEqualTo(ReservationOutcome.Status.RESERVED);
+        assertThat(store.drainPending().orElseThrow().reservedByProductId()).isEqualTo(Map.of(1L, 3, 2L, 5));
+        assertThat(store.tryReserve(Map.of(2L, 1)).status()).isEqualTo(ReservationOutcome.Status.INSUFFICIENT_STOCK);
+    }
+
+    @Test
+    void tryReserve_whenOneProductIsShort_shouldReserveNothing() {
+        ReservationOutcome outcome = store.tryReserve(Map.of(1L, 3, 2L, 6));
+
+        assertThat(outcome).isEqualTo(ReservationOutcome.insufficientStock(2L));
+        assertThat(store.drainPending()).isEmpty();
+        assertThat(store.tryReserve(Map.of(1L, 10)).status()).isEqualTo(ReservationOutcome.Status.RESERVED);
+    }
+
+    @Test
+    void tryReserve_whenCounterIsMissing_shouldReportNotLoaded() {
+        assertThat(store.tryReserve(Map.of(1L, 1, 3L, 1))).isEqualTo(ReservationOutcome.notLoaded(3L));
+        assertThat(store.drainPending()).isEmpty();
+    }
+
+    @Test
+    void release_shouldReturnStockAndOffsetPendingDelta() {
+        store.tryReserve(Map.of(1L, 4));
+        store.release(Map.of(1L, 4));
+
+        assertThat(store.drainPending()).isEmpty();
+        assertThat(store.tryReserve(Map.of(1L, 10)).status()).isEqualTo(ReservationOutcome.Status.RESERVED);
+    }
+
+    @Test
+    void initialize_afterEvict_shouldSubtractDeltasNotYetFlushed() {
+        store.tryReserve(Map.of(1L, 4));
+        store.evict(1L);
+
+        // Ma'lumotlar bazasida hali eski qiymat (10) turibdi
+        store.initialize(Map.of(1L, 10));
+
+        assertThat(store.tryReserve(Map.of(1L, 7)).status()).isEqualTo(ReservationOutcome.Status.INSUFFICIENT_STOCK);
+        assertThat(store.tryReserve(Map.of(1L, 6)).status()).isEqualTo(ReservationOutcome.Status.RESERVED);
+    }
+
+    @Test
+    void initialize_whileBatchIsBeingFlushed_shouldSubtractItsDeltas() {
+        store.tryReserve(Map.of(1L, 4));
+        PendingStockBatch batch = store.drainPending().orElseThrow();
+        store.tryReserve(Map.of(1L, 1));
+        store.evict(1L);
+
+        // Partiya hali bazaga yozilmagan (yoki yozish muvaffaqiyatsiz bo'lgan): products.stock 10 ligicha
+        store.initialize(Map.of(1L, 10));
+        assertThat(store.tryReserve(Map.of(1L, 6)).status()).isEqualTo(ReservationOutcome.Status.INSUFFICIENT_STOCK);
+
+        store.acknowledge(batch);
+        assertThat(store.drainPending().orElseThrow().reservedByProductId()).isEqualTo(Map.of(1L, 1));
+        store.evict(1L);
+        store.initialize(Map.of(1L, 6));
+        assertThat(store.tryReserve(Map.of(1L, 5)).status()).isEqualTo(ReservationOutcome.Status.RESERVED);
+        assertThat(store.tryReserve(Map.of(1L, 1)).status()).isEqualTo(ReservationOutcome.Status.INSUFFICIENT_STOCK);
+    }
+
+    @Test
+    void tryReserve_underContention_shouldNeverOversell() throws Exception {
+        store.initialize(Map.of(7L, 1_000));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (store.tryReserve(Map.of(7L, 1)).status() == ReservationOutcome.Status.RESERVED) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(reserved.get()).isEqualTo(1_000);
+        assertThat(store.drainPending().orElseThrow().reservedByProductId()).isEqualTo(Map.of(7L, 1_000));
+    }
+
+    @Test
+    void tryReserve_whileCounterIsReseeded_shouldNeverOversell() throws Exception {
+        store.initialize(Map.of(7L, 1_000));
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch reservers = new CountDownLatch(8);
+        AtomicInteger reserved = new AtomicInteger();
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    ReservationOutcome.Status status = store.tryReserve(Map.of(7L, 1)).status();
+                    if (status == ReservationOutcome.Status.NOT_LOADED) {
+                        store.initialize(Map.of(7L, 1_000)); // Allocator ham shunday qiladi
+                    } else if (status == ReservationOutcome.Status.RESERVED) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                reservers.countDown();
+                return null;
+            });
+        }
+        // Admin mahsulotni yangilayotgandek: bazadagi qoldiq o'zgarmagan, hisoblagich esa qayta ekiladi
+        executor.submit(() -> {
+            start.await();
+            while (reservers.getCount() > 0) {
+                store.evict(7L);
+                store.initialize(Map.of(7L, 1_000));
+            }
+            return null;
+        });
+        start.countDown();
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(reserved.get()).isLessThanOrEqualTo(1_000);
+        assertThat(store.drainPending().orElseThrow().reservedByProductId()).isEqualTo(Map.of(7L, reserved.get()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.intern.order.service.stock;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lua skriptlarni haqiqiy (embedded) Redis'da tekshiradi.
+ */
+class RedisStockCounterStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisStockCounterStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        store = new RedisStockCounterStore(redisTemplate);
+        store.initialize(Map.of(1L, 10, 2L, 5));
+    }
+
+    @Test
+    void tryReserve_shouldReserveWholeCartOrNothing() {
+        assertThat(store.tryReserve(Map.of(1L, 3, 2L, 6))).isEqualTo(ReservationOutcome.insufficientStock(2L));
+        assertThat(store.tryReserve(Map.of(1L, 3, 2L, 5)).status()).isEqualTo(ReservationOutcome.Status.RESERVED);
+
+        assertThat(redisTemplate.opsForValue().get("{stock}:available:1")).isEqualTo("7");
+        assertThat(redisTemplate.opsForValue().get("{stock}:available:2")).isEqualTo("0");
+    }
+
+    @Test
+    void tryReserve_whenCounterIsMissing_shouldReportNotLoaded() {
+        assertThat(store.tryReserve(Map.of(1L, 1, 3L, 1))).isEqualTo(ReservationOutcome.notLoaded(3L));
+        assertThat(redisTemplate.opsForValue().get("{stock}:available:1")).isEqualTo("10");
+    }
+
+    @Test
+    void drainPending_shouldReturnNetDeltaUntilAcknowledged() {
+        store.tryReserve(Map.of(1L, 4, 2L, 2));
+        store.release(Map.of(2L, 2));
+
+        PendingStockBatch batch = store.drainPending().orElseThrow();
+
+        assertThat(batch.reservedByProductId()).isEqualTo(Map.of(1L, 4));
+        assertThat(store.drainPending()).isEmpty();
+        assertThat(store.findUnacknowledged()).containsExactly(new PendingStockBatch(batch.batchId(), Map.of(1L, 4, 2L, 0)));
+
+        store.acknowledge(batch);
+        assertThat(store.findUnacknowledged()).isEmpty();
+    }
+
+    @Test
+    void initialize_afterEvict_shouldSubtractDeltasNotYetFlushed() {
+        store.tryReserve(Map.of(1L, 4));
+        store.evict(1L);
+
+        store.initialize(Map.of(1L, 10));
+
+        assertThat(redisTemplate.opsForValue().get("{stock}:available:1")).isEqualTo("6");
+    }
+
+    @Test
+    void initialize_whileBatchIsBeingFlushed_shouldSubtractItsDeltas() {
+        store.tryReserve(Map.of(1L, 4));
+        PendingStockBatch batch = store.drainPending().orElseThrow();
+        store.tryReserve(Map.of(1L, 1));
+        store.evict(1L);
+
+        // Partiya hali bazaga yozilmagan: products.stock 10 ligicha
+        store.initialize(Map.of(1L, 10));
+        assertThat(redisTemplate.opsForValue().get("{stock}:available:1")).isEqualTo("5");
+
+        store.acknowledge(batch);
+        store.evict(1L);
+        store.initialize(Map.of(1L, 6));
+        assertThat(redisTemplate.opsForValue().get("{stock}:available:1")).isEqualTo("5");
+    }
+}
@@ -0,0 +1,173 @@
+package com.intern.order.service.stock;
+
+import com.intern.order.config.StockReservationConfig;
+import com.intern.order.entity.Product;
+import com.intern.order.exception.InsufficientStockException;
+import com.intern.order.repository.ProductRepository;
+import com.intern.order.repository.StockFlushBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "app.stock.mode=reservation",
+        "app.stock.backend=local",
+        "app.stock.flush-interval=1h" // Testda flush qo'lda chaqiriladi
+})
+@ActiveProfiles("test")
+@Import(StockReservationConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationStockAllocatorTest {
+
+    @Autowired
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private StockCounterStore counterStore;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockFlushBatchRepository flushBatchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(Product.builder()
+                .name("Flash sale item")
+                .price(new BigDecimal("15.00"))
+                .stock(10)
+                .category("Sale")
+                .isActive(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        flushBatchRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void reserve_shouldNotTouchDatabaseUntilFlush() {
+        stockAllocator.reserve(Map.of(product.getId(), 4));
+        stockAllocator.reserve(Map.of(product.getId(), 3));
+
+        assertThat(stock()).isEqualTo(10);
+
+        ((ReservationStockAllocator) stockAllocator).flush();
+
+        assertThat(stock()).isEqualTo(3);
+        assertThat(flushBatchRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void reserve_whenCountersAreExhausted_shouldThrowException() {
+        stockAllocator.reserve(Map.of(product.getId(), 10));
+
+        assertThatThrownBy(() -> stockAllocator.reserve(Map.of(product.getId(), 1)))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    void reserve_whenOrderTransactionRollsBack_shouldGiveStockBack() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            stockAllocator.reserve(Map.of(product.getId(), 10));
+            status.setRollbackOnly();
+        });
+
+        // Bekor qilingan buyurtma zaxirani band qilib qolmasligi kerak
+        stockAllocator.reserve(Map.of(product.getId(), 10));
+    }
+
+    @Test
+    void release_shouldBeFlushedAsNetDelta() {
+        stockAllocator.reserve(Map.of(product.getId(), 6));
+        stockAllocator.release(Map.of(product.getId(), 2));
+
+        ((ReservationStockAllocator) stockAllocator).flush();
+
+        assertThat(stock()).isEqualTo(6);
+    }
+
+    @Test
+    void reconcile_shouldNotApplyTheSameBatchTwice() {
+        stockAllocator.reserve(Map.of(product.getId(), 5));
+        PendingStockBatch batch = counterStore.drainPending().orElseThrow();
+
+        // Birinchi marta qo'llanadi, ikkinchi marta (masalan, yana qayta ishga tushganda) o'tkazib yuboriladi
+        ReservationStockAllocator restarted = new ReservationStockAllocator(new CrashedStore(counterStore, batch),
+                productRepository, flushBatchRepository, new TransactionTemplate(transactionManager));
+        restarted.reconcile();
+        restarted.reconcile();
+
+        assertThat(stock()).isEqualTo(5);
+    }
+
+    private int stock() {
+        return productRepository.findStockLevels(List.of(product.getId())).get(0).getStock();
+    }
+
+    /**
+     * Simulates a store that still holds a drained but unacknowledged batch after a crash.
+     */
+    private record CrashedStore(StockCounterStore delegate, PendingStockBatch leftover) implements StockCounterStore {
+
+        @Override
+        public ReservationOutcome tryReserve(Map<Long, Integer> quantitiesByProductId) {
+            return delegate.tryReserve(quantitiesByProductId);
+        }
+
+        @Override
+        public void initialize(Map<Long, Integer> stockByProductId) {
+            delegate.initialize(stockByProductId);
+        }
+
+        @Override
+        public void release(Map<Long, Integer> quantitiesByProductId) {
+            delegate.release(quantitiesByProductId);
+        }
+
+        @Override
+        public void evict(Long productId) {
+            delegate.evict(productId);
+        }
+
+        @Override
+        public Optional<PendingStockBatch> drainPending() {
+            return delegate.drainPending();
+        }
+
+        @Override
+        public List<PendingStockBatch> findUnacknowledged() {
+            return List.of(leftover);
+        }
+
+        @Override
+        public void acknowledge(PendingStockBatch batch) {
+        }
+    }
+}